@@ -1,11 +1,22 @@
+import controller.DatabaseController;
+import controller.TaskExecutor;
 import javafx.application.Application;
 import javafx.stage.Stage;
+import model.BootstrapLoader;
 import view.LoginInterface;
 
 public class Y extends Application {
     @Override
     public void start(Stage stage) throws Exception {
-        // TODO implement here
+        // Read the database in the background while the login interface is shown
+        BootstrapLoader.warmUp();
         LoginInterface.getInstance().start(stage);
     }
+
+    @Override
+    public void stop() {
+        // Let running background tasks finish, then commit any queued writes and close the database connections
+        TaskExecutor.shutdown();
+        DatabaseController.shutdown();
+    }
 }
@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -209,8 +210,9 @@ public class AdminInterfaceController {
      *
      * This method clears any existing items in the open and closed post reports table views. It then
      * sets up cell value factories for the report IDs and report dates, formatting the dates as needed.
-     * Reports are retrieved from the {@link ReportSystem} singleton and categorized into open and closed
-     * based on their status, which are then added to the respective table view.
+     * Reports are retrieved from the {@link ReportSystem} singleton on a background thread, since they
+     * may be read from the database, and categorized into open and closed based on their status, which
+     * are then added to the respective table view.
      *
      * Additionally, double-click event handlers are attached to both open and closed post reports table
      * views, allowing the user to open a detailed view of a report when double-clicked.
@@ -227,13 +229,17 @@ public class AdminInterfaceController {
                 cellData -> new SimpleStringProperty(getFormattedDateTime(cellData.getValue().getDateReported())));
 
         // Load open reports
-        for (PostReport report : ReportSystem.getInstance().getPostReports()) {
-            if (report.getStatus() == Report.Status.OPENED) {
-                openPostReportsTableView.getItems().add(report);
-            } else {
-                closedPostReportsTableView.getItems().add(report);
-            }
-        }
+        TaskExecutor.supply(() -> List.copyOf(ReportSystem.getInstance().getPostReports()))
+                .thenAcceptAsync(reports -> {
+                    for (PostReport report : reports) {
+                        if (report.getStatus() == Report.Status.OPENED) {
+                            openPostReportsTableView.getItems().add(report);
+                        } else {
+                            closedPostReportsTableView.getItems().add(report);
+                        }
+                    }
+                }, TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         // Add event handler for openPostReportsTableView
         openPostReportsTableView.setOnMouseClicked(event -> {
@@ -258,7 +264,8 @@ public class AdminInterfaceController {
     /**
      * Loads user reports into the respective table views for open and closed reports.
      * The method clears existing items from the tables, sets up cell value factories
-     * for report ID and formatted report date, and sorts the reports based on their status.
+     * for report ID and formatted report date, and sorts the reports based on their status, which
+     * are retrieved on a background thread since they may be read from the database.
      * Open reports are added to the openUserReportsTableView, while closed reports
      * are added to the closedUserReportsTableView. It also sets a double-click mouse
      * event handler on both tables to open a selected report when double-clicked.
@@ -275,13 +282,17 @@ public class AdminInterfaceController {
                 cellData -> new SimpleStringProperty(getFormattedDateTime(cellData.getValue().getDateReported())));
 
         // Load open reports
-        for (UserReport report : ReportSystem.getInstance().getUserReports()) {
-            if (report.getStatus() == Report.Status.OPENED) {
-                openUserReportsTableView.getItems().add(report);
-            } else {
-                closedUserReportsTableView.getItems().add(report);
-            }
-        }
+        TaskExecutor.supply(() -> List.copyOf(ReportSystem.getInstance().getUserReports()))
+                .thenAcceptAsync(reports -> {
+                    for (UserReport report : reports) {
+                        if (report.getStatus() == Report.Status.OPENED) {
+                            openUserReportsTableView.getItems().add(report);
+                        } else {
+                            closedUserReportsTableView.getItems().add(report);
+                        }
+                    }
+                }, TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         // Add event handler for openUserReportsTableView
         openUserReportsTableView.setOnMouseClicked(event -> {
@@ -306,7 +317,9 @@ public class AdminInterfaceController {
     /**
      * Opens a detailed report window for the given report. The window displays various details about the
      * report including the report ID, reason for the report, content details (either post or user),
-     * status, and options to dismiss or delete the report if it is open.
+     * status, and options to dismiss or delete the report if it is open. The reported post or user and
+     * the reporter are looked up on a background thread, since they may be read from the database, and
+     * filled in once they are known.
      *
      * @param report the report object containing information about the post or user being reported.
      */
@@ -341,26 +354,28 @@ public class AdminInterfaceController {
 
         // Add the content
         if (report instanceof PostReport postReport) {
-            Label postContent;
-            try {
-                postContent = new Label(UserSystem.getInstance().getPostById(postReport.getReportedPostId()).getText());
-            } catch (NullPointerException e) {
-                postContent = new Label(bundle.getString("removed.details"));
-            }
+            Label postContent = new Label();
             postContent.setWrapText(true);
             postVBox.getChildren().add(postContent);
+            TaskExecutor.supply(() -> UserSystem.getInstance().getPostById(postReport.getReportedPostId()))
+                    .thenAcceptAsync(post -> postContent.setText(
+                            post != null ? post.getText() : bundle.getString("removed.details")), TaskExecutor.FX)
+                    .exceptionally(TaskExecutor::logFailure);
         } else if (report instanceof UserReport userReport) {
-            Hyperlink postContent;
-            try {
-                var user = UserSystem.getInstance().getUserById(userReport.getReportedUserId());
-                postContent = new Hyperlink(user.getUsername());
-                postContent.setOnAction(event -> {
-                    openUserProfileWindow(user);
-                });
-            } catch (NullPointerException e) {
-                postContent = new Hyperlink(bundle.getString("removed.details"));
-            }
+            Hyperlink postContent = new Hyperlink();
+            postContent.setDisable(true);
             postVBox.getChildren().add(postContent);
+            TaskExecutor.supply(() -> UserSystem.getInstance().getUserById(userReport.getReportedUserId()))
+                    .thenAcceptAsync(user -> {
+                        if (user == null) {
+                            postContent.setText(bundle.getString("removed.details"));
+                            return;
+                        }
+                        postContent.setText(user.getUsername());
+                        postContent.setOnAction(event -> openUserProfileWindow(user));
+                        postContent.setDisable(false);
+                    }, TaskExecutor.FX)
+                    .exceptionally(TaskExecutor::logFailure);
         }
 
         // Add the post details
@@ -373,8 +388,12 @@ public class AdminInterfaceController {
         postVBox.getChildren().add(postDate);
 
         // Add the post reporter
-        Label postReporter = new Label(bundle.getString("reportedBy.details") + UserSystem.getInstance().getUserById(report.getReportingUserId()).getUsername());
+        Label postReporter = new Label(bundle.getString("reportedBy.details"));
         postVBox.getChildren().add(postReporter);
+        TaskExecutor.supply(() -> UserSystem.getInstance().getUserById(report.getReportingUserId()))
+                .thenAcceptAsync(reporter -> postReporter.setText(bundle.getString("reportedBy.details")
+                        + (reporter != null ? reporter.getUsername() : bundle.getString("removed.details"))), TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         // Add the post status
         Label postStatus = new Label(bundle.getString("status.details") + report.getStatus().toString());
@@ -390,32 +409,33 @@ public class AdminInterfaceController {
             dismissButton.setOnAction(event -> {
                 report.setStatus(Report.Status.CLOSED);
                 report.setDateReported(new Date());
-                if (report instanceof PostReport postReport) {
-                    ReportSystemController.getInstance().closePostReport(postReport);
-                } else if (report instanceof UserReport userReport) {
-                    ReportSystemController.getInstance().closeUserReport(userReport);
-                }
-                loadPostReports();
-                loadUserReports();
-                reportStage.close();
+                // Both buttons stay disabled while the report is closed in the database
+                TaskExecutor.run(buttonHBox, () -> {
+                    if (report instanceof PostReport postReport) {
+                        ReportSystemController.getInstance().closePostReport(postReport);
+                    } else if (report instanceof UserReport userReport) {
+                        ReportSystemController.getInstance().closeUserReport(userReport);
+                    }
+                }).thenRunAsync(() -> reloadReports(reportStage), TaskExecutor.FX).exceptionally(TaskExecutor::logFailure);
             });
             buttonHBox.getChildren().add(dismissButton);
 
             // Add the delete button
             Button deleteButton = new Button(bundle.getString("remove.details"));
             deleteButton.setOnAction(event -> {
-                if (report instanceof PostReport postReport) {
-                    ReportSystemController.getInstance().deletePost(postReport.getReportedPostId());
-                    ReportSystemController.getInstance().closePostReport(postReport);
-                } else if (report instanceof UserReport userReport) {
-                    ReportSystemController.getInstance().deleteUser(userReport.getReportedUserId());
-                    ReportSystemController.getInstance().closeUserReport(userReport);
-                }
-                report.setStatus(Report.Status.CLOSED);
-                report.setDateReported(new Date());
-                loadPostReports();
-                loadUserReports();
-                reportStage.close();
+                TaskExecutor.run(buttonHBox, () -> {
+                    if (report instanceof PostReport postReport) {
+                        ReportSystemController.getInstance().deletePost(postReport.getReportedPostId());
+                        ReportSystemController.getInstance().closePostReport(postReport);
+                    } else if (report instanceof UserReport userReport) {
+                        ReportSystemController.getInstance().deleteUser(userReport.getReportedUserId());
+                        ReportSystemController.getInstance().closeUserReport(userReport);
+                    }
+                }).thenRunAsync(() -> {
+                    report.setStatus(Report.Status.CLOSED);
+                    report.setDateReported(new Date());
+                    reloadReports(reportStage);
+                }, TaskExecutor.FX).exceptionally(TaskExecutor::logFailure);
             });
             buttonHBox.getChildren().add(deleteButton);
         }
@@ -428,6 +448,18 @@ public class AdminInterfaceController {
         reportStage.show();
     }
 
+    /**
+     * Reloads the report tables once an action on a report has been saved, and closes the
+     * window of that report.
+     *
+     * @param reportStage the window of the report
+     */
+    private void reloadReports(Stage reportStage) {
+        loadPostReports();
+        loadUserReports();
+        reportStage.close();
+    }
+
     /**
      * Converts a given date to a formatted string representation.
      *
@@ -449,6 +481,8 @@ public class AdminInterfaceController {
      * Opens a new window displaying the user's profile, including their username
      * and a list of their posts. The profile window is created using a new Stage
      * and includes a VBox layout to organize the user's post headers and content.
+     * The posts are fetched on a background thread, since they may be read from
+     * the database, and added once they are back.
      *
      * @param user the UserAccount object representing the user whose profile
      *             should be displayed
@@ -469,18 +503,20 @@ public class AdminInterfaceController {
         profileVBox.getChildren().add(profileTitle);
 
         // Fetch the user's posts and add them to the VBox
-        UserSystem.getInstance().getPostsByUser(user).forEach(post -> {
-            String header = user.getUsername() + " - " + getFormattedDateTime(post.getDatePosted());
-            Label postHeader = new Label(header);
-            postHeader.setFont(new Font(16.0));
-
-            Label postContent = new Label(post.getText());
-            postContent.setWrapText(true);
-
-            VBox postBox = new VBox(5, postHeader, postContent);
-            postBox.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-padding: 5;");
-            profileVBox.getChildren().add(postBox);
-        });
+        TaskExecutor.supply(() -> UserSystem.getInstance().getPostsByUser(user))
+                .thenAcceptAsync(posts -> posts.forEach(post -> {
+                    String header = user.getUsername() + " - " + getFormattedDateTime(post.getDatePosted());
+                    Label postHeader = new Label(header);
+                    postHeader.setFont(new Font(16.0));
+
+                    Label postContent = new Label(post.getText());
+                    postContent.setWrapText(true);
+
+                    VBox postBox = new VBox(5, postHeader, postContent);
+                    postBox.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-padding: 5;");
+                    profileVBox.getChildren().add(postBox);
+                }), TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         // Set the VBox in a Scene
         Scene profileScene = new Scene(profileVBox, 400, 600);
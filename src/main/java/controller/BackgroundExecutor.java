@@ -0,0 +1,173 @@
+package controller;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking background tasks, such as database reads and writes, on virtual threads.
+ *
+ * Each task gets its own virtual thread, so a burst of tasks costs no platform threads and
+ * never keeps the JVM alive. At most {@link Config#maxConcurrentTasks()} tasks run at once; the
+ * others wait for a permit while parked, which is cheap on a virtual thread, rather than piling
+ * up on the connection pool and timing out there. Every task is tracked until it completes and
+ * a failed task is reported on System.err, so failures are not lost with futures that callers
+ * discard. {@link #close()} waits for the tasks still running before the database is closed.
+ */
+public class BackgroundExecutor implements AutoCloseable {
+    private final Config config;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Concurrency and shutdown settings of the executor.
+     *
+     * @param maxConcurrentTasks the most tasks running at once
+     * @param shutdownTimeout how long {@link #close()} waits for running tasks
+     */
+    public record Config(int maxConcurrentTasks, Duration shutdownTimeout) {
+        public Config {
+            if (maxConcurrentTasks < 1) {
+                throw new IllegalArgumentException("Concurrent tasks must be at least 1");
+            }
+        }
+
+        /**
+         * Builds the default configuration, which can be overridden with the
+         * {@code y.tasks.maxConcurrent} and {@code y.tasks.shutdownTimeoutMillis} system properties.
+         * By default as many tasks run at once as the pool has reader connections.
+         *
+         * @return the default executor configuration
+         */
+        public static Config defaults() {
+            return new Config(
+                    Integer.getInteger("y.tasks.maxConcurrent", ConnectionPool.Config.defaults().maxSize()),
+                    Duration.ofMillis(Long.getLong("y.tasks.shutdownTimeoutMillis", 5_000L)));
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the executor counters.
+     *
+     * @param submitted number of tasks submitted
+     * @param completed number of tasks that completed normally
+     * @param failed number of tasks that failed
+     * @param inFlight number of tasks running or waiting for a permit
+     * @param totalWaitNanos total time tasks waited for a permit
+     * @param maxWaitNanos longest time a task waited for a permit
+     */
+    public record Metrics(long submitted, long completed, long failed, int inFlight,
+                          long totalWaitNanos, long maxWaitNanos) {
+        /**
+         * @return the mean time a task waited for a permit, in milliseconds
+         */
+        public double averageWaitMillis() {
+            long finished = completed + failed;
+            return finished == 0 ? 0 : totalWaitNanos / (double) finished / 1_000_000;
+        }
+    }
+
+    /**
+     * Creates the executor.
+     *
+     * @param threadNamePrefix the prefix of the names of its virtual threads
+     * @param config the concurrency settings
+     */
+    public BackgroundExecutor(String threadNamePrefix, Config config) {
+        this.config = config;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        this.permits = new Semaphore(config.maxConcurrentTasks(), true);
+    }
+
+    /**
+     * Runs a task that returns a value on a new virtual thread, once a permit is free.
+     *
+     * @param task the blocking task to run
+     * @return a future completed with the result of the task, or with its failure
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Background executor is closed"));
+        }
+
+        submitted.increment();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+
+        inFlight.add(future);
+        future.whenComplete((result, e) -> {
+            inFlight.remove(future);
+            if (e == null) {
+                completed.increment();
+            } else {
+                failed.increment();
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                System.err.println("Background task failed: " + cause);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return a snapshot of the executor counters
+     */
+    public Metrics getMetrics() {
+        return new Metrics(submitted.sum(), completed.sum(), failed.sum(), inFlight.size(),
+                totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+
+    /**
+     * Stops accepting tasks and waits up to {@link Config#shutdownTimeout()} for the tasks
+     * already submitted. Tasks still running after that are interrupted.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(config.shutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                System.err.println("Interrupting " + inFlight.size() + " background tasks still running");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
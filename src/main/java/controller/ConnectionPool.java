@@ -0,0 +1,471 @@
+package controller;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small pool of long-lived JDBC connections to a single SQLite database file.
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: closing them returns the
+ * underlying physical connection to the pool instead of closing it, so callers keep using
+ * try-with-resources exactly as they would with {@link DriverManager#getConnection(String)}.
+ * Idle connections are evicted after {@link Config#idleTimeout()} and validated before being
+ * handed out again once {@link Config#validationInterval()} has elapsed.
+ *
+ * Each physical connection also keeps its own cache of compiled {@link PreparedStatement}s,
+ * reachable through {@link CachingConnection#prepareCached(String)}, so that the same SQL
+ * template is only parsed and planned once per connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final Properties properties;
+    @Getter
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder failedHealthChecks = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Sizing and eviction settings of a pool.
+     *
+     * @param maxSize the maximum number of physical connections open at once
+     * @param maxWait how long a caller waits for a free connection before failing
+     * @param idleTimeout how long a connection may sit idle before it is closed
+     * @param validationInterval how long a connection may go unchecked before it is validated on checkout
+     * @param validationTimeoutSeconds the timeout passed to {@link Connection#isValid(int)}
+     * @param statementCacheSize the number of prepared statements cached per connection
+     */
+    public record Config(int maxSize, Duration maxWait, Duration idleTimeout,
+                         Duration validationInterval, int validationTimeoutSeconds, int statementCacheSize) {
+        public Config {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Pool size must be at least 1");
+            }
+            if (statementCacheSize < 1) {
+                throw new IllegalArgumentException("Statement cache size must be at least 1");
+            }
+        }
+
+        /**
+         * Builds the default configuration, which can be overridden with the
+         * {@code y.db.pool.size}, {@code y.db.pool.maxWaitMillis}, {@code y.db.pool.idleTimeoutMillis},
+         * {@code y.db.pool.validationIntervalMillis} and {@code y.db.pool.statementCacheSize} system properties.
+         *
+         * @return the default pool configuration
+         */
+        public static Config defaults() {
+            return new Config(
+                    Integer.getInteger("y.db.pool.size", 4),
+                    Duration.ofMillis(Long.getLong("y.db.pool.maxWaitMillis", 10_000L)),
+                    Duration.ofMillis(Long.getLong("y.db.pool.idleTimeoutMillis", 300_000L)),
+                    Duration.ofMillis(Long.getLong("y.db.pool.validationIntervalMillis", 30_000L)),
+                    2,
+                    Integer.getInteger("y.db.pool.statementCacheSize", 64));
+        }
+
+        /**
+         * @param maxSize the maximum number of physical connections open at once
+         * @return a copy of this configuration with a different pool size
+         */
+        public Config withMaxSize(int maxSize) {
+            return new Config(maxSize, maxWait, idleTimeout, validationInterval, validationTimeoutSeconds, statementCacheSize);
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the pool counters.
+     *
+     * @param checkouts number of connections handed out since the pool was created
+     * @param created number of physical connections opened
+     * @param evicted number of physical connections closed for being idle or unhealthy
+     * @param failedHealthChecks number of connections that failed validation
+     * @param timeouts number of callers that gave up waiting for a connection
+     * @param totalWaitNanos cumulative time callers spent waiting for a connection
+     * @param maxWaitNanos the longest single wait for a connection
+     * @param open number of physical connections currently open
+     * @param idle number of open connections currently sitting in the pool
+     */
+    public record Metrics(long checkouts, long created, long evicted, long failedHealthChecks, long timeouts,
+                          long totalWaitNanos, long maxWaitNanos, int open, int idle) {
+        /**
+         * @return the number of connections currently checked out
+         */
+        public int active() {
+            return open - idle;
+        }
+
+        /**
+         * @return the mean time a checkout waited for a connection, in milliseconds
+         */
+        public double averageWaitMillis() {
+            return checkouts == 0 ? 0 : totalWaitNanos / (double) checkouts / 1_000_000d;
+        }
+    }
+
+    /**
+     * A pooled connection that can hand out prepared statements cached on the physical connection.
+     */
+    public interface CachingConnection extends Connection {
+        /**
+         * Returns the compiled statement for the given SQL, preparing it only the first time it is
+         * requested on this physical connection. The statement belongs to the cache: callers must
+         * close its result sets but never the statement itself.
+         *
+         * @param sql the SQL template, with {@code ?} placeholders for every value
+         * @return the cached prepared statement, with its parameters cleared
+         * @throws SQLException if the statement cannot be prepared
+         */
+        PreparedStatement prepareCached(String sql) throws SQLException;
+    }
+
+    /**
+     * Creates a pool for the given JDBC url. No connection is opened until the first checkout.
+     *
+     * @param url the JDBC url of the database
+     * @param properties the driver properties every connection is opened with
+     * @param config the sizing and eviction settings
+     */
+    public ConnectionPool(String url, Properties properties, Config config) {
+        this.url = url;
+        this.properties = properties;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+
+        long period = Math.max(1_000L, config.idleTimeout().toMillis() / 2);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("y-db-pool-housekeeper").factory());
+        this.housekeeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks a connection out of the pool, opening a new one if none is idle and the pool
+     * is not full. Closing the returned connection hands it back to the pool.
+     *
+     * @return a pooled connection
+     * @throws SQLException if the pool is closed, no connection frees up within
+     *                      {@link Config#maxWait()} or a new connection cannot be opened
+     */
+    public CachingConnection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTimeoutException("Timed out waiting for a database connection after " + config.maxWait());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeHealthyIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            checkouts.increment();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a snapshot of the pool counters
+     */
+    public Metrics getMetrics() {
+        return new Metrics(checkouts.sum(), created.sum(), evicted.sum(), failedHealthChecks.sum(), timeouts.sum(),
+                totalWaitNanos.sum(), maxWaitNanos.get(), openConnections.get(), idle.size());
+    }
+
+    /**
+     * Closes every idle connection that has not been used within {@link Config#idleTimeout()}.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<PooledConnection> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.lastUsed >= config.idleTimeout().toNanos() && idle.remove(pooled)) {
+                evicted.increment();
+                pooled.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * Closes the pool and every idle connection. Connections still checked out are closed
+     * as soon as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection, discarding any that have gone stale.
+     *
+     * @return a validated idle connection, or null if none is available
+     */
+    private PooledConnection takeHealthyIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.nanoTime();
+            if (now - pooled.lastUsed >= config.idleTimeout().toNanos()) {
+                evicted.increment();
+                pooled.closePhysical();
+            } else if (now - pooled.lastValidated >= config.validationInterval().toNanos() && !pooled.isHealthy()) {
+                failedHealthChecks.increment();
+                evicted.increment();
+                pooled.closePhysical();
+            } else {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the new pool entry
+     * @throws SQLException if the connection cannot be opened
+     */
+    private PooledConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, properties);
+        openConnections.incrementAndGet();
+        created.increment();
+        return new PooledConnection(connection);
+    }
+
+    /**
+     * Hands a connection back after its lease was closed.
+     *
+     * @param pooled the pool entry being returned
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            if (closed || !pooled.reset()) {
+                evicted.increment();
+                pooled.closePhysical();
+            } else {
+                pooled.lastUsed = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+        private volatile long lastUsed = System.nanoTime();
+        private volatile long lastValidated = System.nanoTime();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            // Access-ordered so the least recently used statement is closed once the cache is full
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > config.statementCacheSize()) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Wraps the physical connection in a proxy whose {@code close()} returns it to the pool.
+         *
+         * @return the proxy handed to callers
+         */
+        private CachingConnection lease() {
+            return (CachingConnection) Proxy.newProxyInstance(
+                    CachingConnection.class.getClassLoader(),
+                    new Class<?>[]{CachingConnection.class},
+                    new Lease(this));
+        }
+
+        /**
+         * Looks up or prepares the statement for the given SQL. Only the current borrower
+         * touches the cache, so no locking is needed.
+         *
+         * @param sql the SQL template
+         * @return the cached statement
+         * @throws SQLException if the statement cannot be prepared
+         */
+        private PreparedStatement prepareCached(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        private void closeQuietly(Statement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("SQL error: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Validates the connection with {@link Connection#isValid(int)}.
+         *
+         * @return true if the connection is still usable
+         */
+        private boolean isHealthy() {
+            try {
+                boolean valid = !connection.isClosed() && connection.isValid(config.validationTimeoutSeconds());
+                lastValidated = System.nanoTime();
+                return valid;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Rolls back any transaction left open by the last borrower and restores auto-commit.
+         *
+         * @return true if the connection can be reused
+         */
+        private boolean reset() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statements.values().forEach(this::closeQuietly);
+                statements.clear();
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("SQL error: " + e.getMessage());
+            } finally {
+                openConnections.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The invocation handler behind a checked-out connection. Every call is forwarded to the
+     * physical connection until the lease is closed.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + pooled.connection;
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (method.getName().equals("prepareCached")) {
+                        return pooled.prepareCached((String) args[0]);
+                    }
+                    try {
+                        return method.invoke(pooled.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
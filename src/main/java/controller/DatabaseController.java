@@ -5,14 +5,11 @@ import model.*;
 import java.sql.*;
 import java.util.*;
 import java.util.Date;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
 
 public class DatabaseController {
     // Singleton instance
     private static DatabaseController instance;
-    private static ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-    private static ReentrantReadWriteLock.ReadLock READ_LOCK = LOCK.readLock();
-    private static ReentrantReadWriteLock.WriteLock WRITE_LOCK = LOCK.writeLock();
 
     private DatabaseController() {}
 
@@ -35,6 +32,26 @@ public class DatabaseController {
     public static final String BASE_PATH = "jdbc:sqlite:./src/main/resources/";
     public static final String DB_PATH = BASE_PATH + "database.db";
 
+    // WAL mode, synchronous level and cache sizes applied to every connection
+    private static final StorageConfig STORAGE = StorageConfig.defaults();
+
+    // Reports schema changes on the console, set with the y.db.verbose system property
+    private static final boolean VERBOSE = Boolean.getBoolean("y.db.verbose");
+
+    // Long-lived connections shared by every statement, instead of opening the file per call.
+    // In WAL mode readers never block on the writer, so reads get a pool of read-only connections
+    // while every write goes through one dedicated writer connection, which serializes them.
+    private static final ConnectionPool READERS = new ConnectionPool(DB_PATH, STORAGE.readerProperties(),
+            ConnectionPool.Config.defaults());
+    private static final ConnectionPool WRITER = new ConnectionPool(DB_PATH, STORAGE.writerProperties(),
+            ConnectionPool.Config.defaults().withMaxSize(1));
+
+    // Likes, follows and reports are written behind, grouped into one transaction per batch
+    private static final WriteBehindQueue WRITE_QUEUE = new WriteBehindQueue(WRITER, WriteBehindQueue.Config.defaults());
+
+    // Column layout of every table, loaded once instead of probed on every insert
+    private static final SchemaCatalog CATALOG = new SchemaCatalog();
+
     // SQL statements to create tables
     public static final String CREATE_ADMIN_TABLE = """
             CREATE TABLE IF NOT EXISTS admins (
@@ -102,6 +119,11 @@ public class DatabaseController {
             );
             """; //Possibly change adminId to be not null?
 
+    // Columns written when a report is submitted. The adminId column added by migration 1 stays
+    // null until an admin takes the report
+    public static final List<String> USER_REPORT_COLUMNS = List.of("reason", "status", "date", "reporterId", "reporteeId");
+    public static final List<String> POST_REPORT_COLUMNS = List.of("reason", "status", "date", "reporterId", "postId");
+
     public static final String CREATE_POST_REPORT_TABLE = """
             CREATE TABLE IF NOT EXISTS "post_reports" (
             	"id"	INTEGER,
@@ -116,6 +138,124 @@ public class DatabaseController {
             );
             """; //Possibly change adminId to be not null?
 
+    // Full-text index of the content of posts. Contentless, since the text is read from the posts
+    // table, and kept in sync with it by the triggers below
+    public static final String CREATE_POST_SEARCH_TABLE = """
+            CREATE VIRTUAL TABLE IF NOT EXISTS posts_fts USING fts5(
+                content,
+                content = '',
+                contentless_delete = 1,
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+            """;
+
+    public static final List<String> POST_SEARCH_TRIGGERS = List.of("""
+            CREATE TRIGGER IF NOT EXISTS posts_fts_insert AFTER INSERT ON posts BEGIN
+                INSERT OR REPLACE INTO posts_fts (rowid, content) VALUES (new.id, new.content);
+            END
+            """, """
+            CREATE TRIGGER IF NOT EXISTS posts_fts_update AFTER UPDATE OF content ON posts BEGIN
+                INSERT OR REPLACE INTO posts_fts (rowid, content) VALUES (new.id, new.content);
+            END
+            """, """
+            CREATE TRIGGER IF NOT EXISTS posts_fts_delete AFTER DELETE ON posts BEGIN
+                DELETE FROM posts_fts WHERE rowid = old.id;
+            END
+            """);
+
+    // Trigram index of the usernames of users, for searches of any part of a username. Contentless
+    // like posts_fts, and kept in sync with the users table by the triggers below
+    public static final String CREATE_USER_SEARCH_TABLE = """
+            CREATE VIRTUAL TABLE IF NOT EXISTS users_fts USING fts5(
+                username,
+                content = '',
+                contentless_delete = 1,
+                tokenize = 'trigram'
+            )
+            """;
+
+    public static final List<String> USER_SEARCH_TRIGGERS = List.of("""
+            CREATE TRIGGER IF NOT EXISTS users_fts_insert AFTER INSERT ON users BEGIN
+                INSERT OR REPLACE INTO users_fts (rowid, username) VALUES (new.id, new.username);
+            END
+            """, """
+            CREATE TRIGGER IF NOT EXISTS users_fts_update AFTER UPDATE OF username ON users BEGIN
+                INSERT OR REPLACE INTO users_fts (rowid, username) VALUES (new.id, new.username);
+            END
+            """, """
+            CREATE TRIGGER IF NOT EXISTS users_fts_delete AFTER DELETE ON users BEGIN
+                DELETE FROM users_fts WHERE rowid = old.id;
+            END
+            """);
+
+    // Indexes the usernames of the users created before the trigram index existed
+    private static final MigrationRunner.Backfill INDEX_USERNAMES = new MigrationRunner.Backfill(
+            "index_usernames", "users", 1_000, (connection, from, to) -> updateRowRange(connection,
+                    "INSERT OR REPLACE INTO users_fts (rowid, username) SELECT id, username FROM users WHERE id BETWEEN ? AND ?",
+                    from, to));
+
+    // Indexes the posts written before the full-text index existed
+    private static final MigrationRunner.Backfill INDEX_POST_CONTENT = new MigrationRunner.Backfill(
+            "index_post_content", "posts", 1_000, (connection, from, to) -> updateRowRange(connection,
+                    "INSERT OR REPLACE INTO posts_fts (rowid, content) SELECT id, content FROM posts WHERE id BETWEEN ? AND ?",
+                    from, to));
+
+    // Recounts the denormalized counters of posts and users from the likes and follows tables
+    private static final MigrationRunner.Backfill RECOUNT_LIKES = new MigrationRunner.Backfill(
+            "recount_post_likes", "posts", 1_000, (connection, from, to) -> updateRowRange(connection,
+                    "UPDATE posts SET numLikes = (SELECT COUNT(*) FROM likes WHERE likes.postId = posts.id) WHERE id BETWEEN ? AND ?",
+                    from, to));
+    private static final MigrationRunner.Backfill RECOUNT_FOLLOWERS = new MigrationRunner.Backfill(
+            "recount_user_followers", "users", 1_000, (connection, from, to) -> updateRowRange(connection,
+                    "UPDATE users SET numFollowers = (SELECT COUNT(*) FROM follows WHERE follows.followeeId = users.id) WHERE id BETWEEN ? AND ?",
+                    from, to));
+
+    // Changes of the schema since the CREATE statements above, applied in order by createAllTables.
+    // Never edit or reorder a migration that has shipped: add a new one instead
+    static final MigrationRunner MIGRATIONS = new MigrationRunner(List.of(
+            new MigrationRunner.Migration(1, "Add the admin assigned to each report", connection -> {
+                MigrationRunner.addColumnIfMissing(connection, "user_reports", "adminId", "INTEGER REFERENCES admins(id)");
+                MigrationRunner.addColumnIfMissing(connection, "post_reports", "adminId", "INTEGER REFERENCES admins(id)");
+            }),
+            new MigrationRunner.Migration(2, "Recount the likes of every post and the followers of every user", connection -> {
+                RECOUNT_LIKES.register(connection);
+                RECOUNT_FOLLOWERS.register(connection);
+            }),
+            new MigrationRunner.Migration(3, "Index the content of posts for full-text search", connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(CREATE_POST_SEARCH_TABLE);
+                    for (String trigger : POST_SEARCH_TRIGGERS) {
+                        statement.executeUpdate(trigger);
+                    }
+                }
+                INDEX_POST_CONTENT.register(connection);
+            }),
+            new MigrationRunner.Migration(4, "Index the usernames of users for substring search", connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(CREATE_USER_SEARCH_TABLE);
+                    for (String trigger : USER_SEARCH_TRIGGERS) {
+                        statement.executeUpdate(trigger);
+                    }
+                }
+                INDEX_USERNAMES.register(connection);
+            })
+    ), List.of(RECOUNT_LIKES, RECOUNT_FOLLOWERS, INDEX_POST_CONTENT, INDEX_USERNAMES));
+
+    // Secondary indexes of the hot queries, created and verified at startup by createAllTables
+    private static final IndexCatalog INDEXES = new IndexCatalog(List.of(
+            // Serves the keyset pages of an author's posts without a sort step, scanned backwards for newest first
+            new IndexCatalog.Index("idx_posts_user_date", "posts", "userId, datePosted, id"),
+            // Covers the users who liked a post
+            new IndexCatalog.Index("idx_likes_post", "likes", "postId, userId"),
+            // Covers the followers of an account
+            new IndexCatalog.Index("idx_follows_followee", "follows", "followeeId, followerId"),
+            // Serves scans of the reports with a given status, e.g. the open ones, by date
+            new IndexCatalog.Index("idx_user_reports_status_date", "user_reports", "status, date"),
+            new IndexCatalog.Index("idx_post_reports_status_date", "post_reports", "status, date"),
+            // Serves case-insensitive username lookups and prefix searches
+            new IndexCatalog.Index("idx_users_username_nocase", "users", "username COLLATE NOCASE")
+    ));
+
     /**
      * Connects to a local db file
       * @param path the path to the db file
@@ -131,6 +271,56 @@ public class DatabaseController {
         return conn;
     }
 
+    /**
+     * Returns the checkout counts and wait times of the reader connection pool
+     * @return a snapshot of the reader pool metrics
+     */
+    public static ConnectionPool.Metrics getPoolMetrics() {
+        return READERS.getMetrics();
+    }
+
+    /**
+     * Returns the checkout counts and wait times of the writer connection, i.e. how long
+     * writes queued behind each other
+     * @return a snapshot of the writer pool metrics
+     */
+    public static ConnectionPool.Metrics getWriterMetrics() {
+        return WRITER.getMetrics();
+    }
+
+    /**
+     * Returns the batch counts of the write-behind queue
+     * @return a snapshot of the write-behind metrics
+     */
+    public static WriteBehindQueue.Metrics getWriteBehindMetrics() {
+        return WRITE_QUEUE.getMetrics();
+    }
+
+    /**
+     * @return the storage settings applied to every connection
+     */
+    public static StorageConfig getStorageConfig() {
+        return STORAGE;
+    }
+
+    /**
+     * Returns a future that completes once every write queued so far has been committed,
+     * for callers that need their writes to be durable before going on
+     * @return a future completed when the write-behind queue has caught up
+     */
+    public static CompletableFuture<Void> flushWrites() {
+        return WRITE_QUEUE.flush();
+    }
+
+    /**
+     * Commits every queued write and closes all connections. Called when the application exits
+     */
+    public static void shutdown() {
+        WRITE_QUEUE.close();
+        WRITER.close();
+        READERS.close();
+    }
+
     /**
      * Creates a table in the database
      * @param sql the CREATE statement to execute
@@ -153,6 +343,94 @@ public class DatabaseController {
         createTable(CREATE_LIKE_TABLE);
         createTable(CREATE_USER_REPORT_TABLE);
         createTable(CREATE_POST_REPORT_TABLE);
+        migrate();
+        ensureIndexes();
+        loadSchemaCatalog();
+        runBackfills();
+    }
+
+    /**
+     * Runs an UPDATE over a range of IDs, for a chunk of a backfill
+     * @param connection the connection of the backfill
+     * @param sql the statement, with placeholders for the first and last ID of the range
+     * @param fromId the first ID of the range
+     * @param toId the last ID of the range
+     */
+    private static void updateRowRange(Connection connection, String sql, long fromId, long toId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Applies the schema migrations the database has not had yet, which upgrades an existing
+     * database to the schema of this version of the application
+     * @return what was applied
+     */
+    public static MigrationRunner.Result migrate() {
+        try (Connection connection = WRITER.getConnection()) {
+            MigrationRunner.Result result = MIGRATIONS.migrate(connection);
+            if (!result.applied().isEmpty()) {
+                if (VERBOSE) {
+                    System.out.println("Migrated the database from version " + result.fromVersion() + " to "
+                            + result.toVersion() + ": " + result.applied());
+                }
+                CATALOG.invalidate();
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Runs the backfills registered by migrations on a background thread, one short transaction
+     * per chunk of rows, so that the application can be used while they run. A backfill that is
+     * stopped, e.g. because the application exits, resumes on the next start
+     * @return a future completed with the number of chunks applied
+     */
+    public static CompletableFuture<Integer> runBackfills() {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("y-backfill").start(() -> {
+            try {
+                done.complete(MIGRATIONS.runBackfills(WRITER::getConnection));
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Backfill stopped: " + e.getMessage());
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Creates the managed secondary indexes that are missing and rebuilds the ones whose
+     * definition has changed, which upgrades the indexes of an existing database
+     * @return what was found and changed
+     */
+    public static IndexCatalog.Result ensureIndexes() {
+        try (Connection connection = WRITER.getConnection()) {
+            IndexCatalog.Result result = INDEXES.ensure(connection);
+            if (VERBOSE && result.changed()) {
+                System.out.println("Indexes created: " + result.created() + ", rebuilt: " + result.rebuilt()
+                        + ", dropped: " + result.dropped());
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the columns of every table into the schema catalog
+     */
+    private static void loadSchemaCatalog() {
+        try (Connection connection = READERS.getConnection()) {
+            CATALOG.load(connection);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -164,6 +442,7 @@ public class DatabaseController {
             throw new IllegalArgumentException("SQL statement must be an ALTER statement");
         }
         executeDdlAndDml(sql);
+        CATALOG.invalidate();
     }
 
     /**
@@ -175,6 +454,7 @@ public class DatabaseController {
             throw new IllegalArgumentException("SQL statement must be a DROP statement");
         }
         executeDdlAndDml(sql);
+        CATALOG.invalidate();
     }
 
     /**
@@ -226,14 +506,11 @@ public class DatabaseController {
      * @param sql the statement to execute
      */
     private static void executeDdlAndDml(String sql) {
-        WRITE_LOCK.lock();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = WRITER.getConnection();
              Statement statement = connection.createStatement()) {
             statement.executeUpdate(sql);
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            WRITE_LOCK.unlock();
         }
     }
 
@@ -242,7 +519,9 @@ public class DatabaseController {
      * @param tableName the table to insert into
      * @param params the values to insert
      * @return the INSERT statement
+     * @deprecated values are concatenated into the SQL text, use {@link #insert(String, Object...)} instead
      */
+    @Deprecated
     public static String generateInsertStatement(String tableName, Object... params) {
         String[] columns = getColumns(tableName);
 
@@ -288,7 +567,9 @@ public class DatabaseController {
      * @param tableName name of table
      * @param params values to insert
      * @return INSERT statement
+     * @deprecated values are concatenated into the SQL text, use {@link #insertFull(String, Object...)} instead
      */
+    @Deprecated
     public static String generateFullInsertStatement(String tableName, Object... params) {
         StringBuilder sb = new StringBuilder("INSERT INTO "); // Start building the INSERT statement
 
@@ -315,41 +596,25 @@ public class DatabaseController {
     }
 
     /**
-     * Get the column names of a table
+     * Get the column names of a table from the schema catalog, loading the catalog first if
+     * it has not been loaded yet or was invalidated by a schema change
      * @param tableName the name of the table
      * @return an array of column names
      */
     private static String[] getColumns(String tableName) {
-        READ_LOCK.lock();
-        // SQLite database path and table name
-        try (Connection conn = connect(DB_PATH)) {
-            // Query to fetch one row from the table
-            String query = "SELECT * FROM " + tableName + " LIMIT 1";
-
-            // Execute the query and retrieve metadata
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                // Get the ResultSetMetaData
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-
-                // Create an array to hold the column names
-                String[] columnNames = new String[columnCount];
-
-                // Loop through the columns and get their names
-                for (int i = 1; i <= columnCount; i++) {
-                    columnNames[i - 1] = metaData.getColumnName(i);
-                }
-
-                return columnNames;
-            }
-        } catch (SQLException e) {
-            System.err.println("SQL error: " + e.getMessage());
-            return null;
-        } finally {
-            READ_LOCK.unlock();
+        if (!CATALOG.isLoaded()) {
+            loadSchemaCatalog();
+        }
+        String[] columns = CATALOG.getColumnNames(tableName);
+        if (columns == null) {
+            // The table may have been created after the catalog was loaded
+            loadSchemaCatalog();
+            columns = CATALOG.getColumnNames(tableName);
+        }
+        if (columns == null) {
+            throw new IllegalArgumentException("Unknown table: " + tableName);
         }
+        return columns;
     }
 
     /**
@@ -357,7 +622,9 @@ public class DatabaseController {
      * @param tableName the table to update
      * @param params the values to update
      * @return the UPDATE statement
+     * @deprecated values are concatenated into the SQL text, use {@link #update(String, Object...)} instead
      */
+    @Deprecated
     public static String generateUpdateStatement(String tableName, Object... params) {
         StringBuilder sb = new StringBuilder("UPDATE "); // Start building the UPDATE statement
         sb.append(tableName).append(" SET "); // Append the table name and SET keyword
@@ -404,7 +671,9 @@ public class DatabaseController {
      * @param tableName the table to delete from
      * @param params the values to delete
      * @return the DELETE statement
+     * @deprecated values are concatenated into the SQL text, use {@link #delete(String, Object...)} instead
      */
+    @Deprecated
     public static String generateDeleteStatement(String tableName, Object... params) {
         StringBuilder sb = new StringBuilder("DELETE FROM "); // Start building the DELETE statement
         sb.append(tableName)
@@ -439,7 +708,9 @@ public class DatabaseController {
      * @param tableName the table to select from
      * @param params the values to select
      * @return the SELECT statement
+     * @deprecated values are concatenated into the SQL text, use {@link #selectUserRecord(String, Object)} instead
      */
+    @Deprecated
     public static String generateSelectStatement(String tableName, Object... params) {
         StringBuilder sb = new StringBuilder("SELECT * FROM "); // Start building the SELECT statement
         sb.append(tableName)
@@ -456,16 +727,452 @@ public class DatabaseController {
         return sb.toString(); // Return the complete SELECT statement
     }
 
+    /**
+     * Reads one row of a result set into an object
+     * @param <T> the type of object built from the row
+     */
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Inserts a record into a table with a prepared statement, skipping the ID column
+     * @param tableName the table to insert into
+     * @param params the values to insert, in column order
+     * @return the generated ID of the new record
+     */
+    public static int insert(String tableName, Object... params) {
+        return executePreparedInsert(insertStatement(tableName, params), params);
+    }
+
+    /**
+     * Inserts a record into a table with a prepared statement, writing only the given columns.
+     * The other columns get their default value, so the insert keeps working when a migration
+     * adds a column to the table
+     * @param tableName the table to insert into
+     * @param columns the columns to write
+     * @param params the values to insert, one per column, in the same order
+     * @return the generated ID of the new record
+     */
+    public static int insert(String tableName, List<String> columns, Object... params) {
+        return executePreparedInsert(insertStatement(tableName, columns, params), params);
+    }
+
+    /**
+     * Queues an insert on the write-behind queue, skipping the ID column
+     * @param tableName the table to insert into
+     * @param params the values to insert, in column order
+     * @return a future completed with the generated ID once the insert has been committed
+     */
+    public static CompletableFuture<Integer> queueInsert(String tableName, Object... params) {
+        String sql = insertStatement(tableName, params);
+        return WRITE_QUEUE.submit(connection -> executeInsert(connection, sql, params));
+    }
+
+    /**
+     * Queues an insert on the write-behind queue, writing only the given columns
+     * @param tableName the table to insert into
+     * @param columns the columns to write
+     * @param params the values to insert, one per column, in the same order
+     * @return a future completed with the generated ID once the insert has been committed
+     */
+    public static CompletableFuture<Integer> queueInsert(String tableName, List<String> columns, Object... params) {
+        String sql = insertStatement(tableName, columns, params);
+        return WRITE_QUEUE.submit(connection -> executeInsert(connection, sql, params));
+    }
+
+    /**
+     * Queues a like on the write-behind queue. The numLikes column is only incremented if the
+     * like record was actually inserted, so the cost does not depend on how many likes the post has
+     * @param userId the user liking the post
+     * @param postId the post being liked
+     * @return a future completed with the new number of likes once the like has been committed
+     */
+    public static CompletableFuture<Integer> insertLike(int userId, int postId) {
+        return WRITE_QUEUE.submit(connection -> {
+            int inserted = executeUpdate(connection, "INSERT OR IGNORE INTO likes VALUES(?, ?)", userId, postId);
+            return adjustCounter(connection, "posts", "numLikes", postId, inserted);
+        });
+    }
+
+    /**
+     * Queues an unlike on the write-behind queue. The numLikes column is only decremented if a
+     * like record was actually deleted
+     * @param userId the user unliking the post
+     * @param postId the post being unliked
+     * @return a future completed with the new number of likes once the unlike has been committed
+     */
+    public static CompletableFuture<Integer> deleteLike(int userId, int postId) {
+        return WRITE_QUEUE.submit(connection -> {
+            int deleted = executeUpdate(connection, "DELETE FROM likes WHERE userId = ? AND postId = ?", userId, postId);
+            return adjustCounter(connection, "posts", "numLikes", postId, -deleted);
+        });
+    }
+
+    /**
+     * Queues a follow on the write-behind queue. The numFollowers column of the followee is only
+     * incremented if the follow record was actually inserted
+     * @param followerId the user following
+     * @param followeeId the user being followed
+     * @return a future completed with the new number of followers once the follow has been committed
+     */
+    public static CompletableFuture<Integer> insertFollow(int followerId, int followeeId) {
+        return WRITE_QUEUE.submit(connection -> {
+            int inserted = executeUpdate(connection, "INSERT OR IGNORE INTO follows VALUES(?, ?)", followerId, followeeId);
+            return adjustCounter(connection, "users", "numFollowers", followeeId, inserted);
+        });
+    }
+
+    /**
+     * Queues an unfollow on the write-behind queue. The numFollowers column of the followee is only
+     * decremented if a follow record was actually deleted
+     * @param followerId the user unfollowing
+     * @param followeeId the user being unfollowed
+     * @return a future completed with the new number of followers once the unfollow has been committed
+     */
+    public static CompletableFuture<Integer> deleteFollow(int followerId, int followeeId) {
+        return WRITE_QUEUE.submit(connection -> {
+            int deleted = executeUpdate(connection, "DELETE FROM follows WHERE followerId = ? AND followeeId = ?", followerId, followeeId);
+            return adjustCounter(connection, "users", "numFollowers", followeeId, -deleted);
+        });
+    }
+
+    /**
+     * Adds a delta to a counter column in place and reads back the new value. When the delta is
+     * zero, e.g. because the like or follow already existed, the current value is read instead
+     * @param connection the writer connection
+     * @param tableName the table holding the counter
+     * @param column the counter column
+     * @param id the ID of the record
+     * @param delta how much to add to the counter
+     * @return the new value of the counter, or -1 if the record does not exist
+     */
+    private static int adjustCounter(ConnectionPool.CachingConnection connection, String tableName, String column,
+                                     int id, int delta) throws SQLException {
+        requireIdentifier(tableName);
+        requireIdentifier(column);
+        if (delta == 0) {
+            PreparedStatement statement = connection.prepareCached("SELECT " + column + " FROM " + tableName + " WHERE id = ?");
+            bind(statement, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : -1;
+            }
+        }
+        return executeReturningInt(connection,
+                "UPDATE " + tableName + " SET " + column + " = MAX(" + column + " + ?, 0) WHERE id = ? RETURNING " + column,
+                delta, id);
+    }
+
+    /**
+     * Builds the INSERT statement of a table, skipping the ID column
+     * @param tableName the table to insert into
+     * @param params the values to insert, in column order
+     * @return the INSERT statement with a placeholder for every value
+     */
+    private static String insertStatement(String tableName, Object... params) {
+        String[] columns = getColumns(tableName);
+
+        // Skip the first column because it is the ID
+        return insertStatement(tableName, Arrays.asList(columns).subList(1, columns.length), params);
+    }
+
+    /**
+     * Builds the INSERT statement of a table for the given columns
+     * @param tableName the table to insert into
+     * @param columns the columns to write
+     * @param params the values to insert, one per column
+     * @return the INSERT statement with a placeholder for every value
+     */
+    static String insertStatement(String tableName, List<String> columns, Object... params) {
+        if (columns.size() != params.length) {
+            throw new IllegalArgumentException("The number of columns must match the number of parameters.");
+        }
+
+        return "INSERT INTO " + requireIdentifier(tableName)
+                + " (" + String.join(", ", columns.stream().map(DatabaseController::requireIdentifier).toList()) + ")"
+                + " VALUES(" + placeholders(params.length) + ")";
+    }
+
+    /**
+     * Inserts a record with a value for every column (usage for many-to-many tables)
+     * @param tableName name of table
+     * @param params values to insert
+     * @return the number of rows inserted
+     */
+    public static int insertFull(String tableName, Object... params) {
+        String sql = "INSERT INTO " + requireIdentifier(tableName) + " VALUES(" + placeholders(params.length) + ")";
+        return executePrepared(sql, params);
+    }
+
+    /**
+     * Updates records with a prepared statement. Parameters are column/value pairs, the last pair
+     * being the WHERE condition, e.g. {@code update("posts", "numLikes", 3, "id", 7)}
+     * @param tableName the table to update
+     * @param params the column/value pairs to set, followed by the WHERE column/value pair
+     * @return the number of rows updated
+     */
+    public static int update(String tableName, Object... params) {
+        if (params.length < 4 || params.length % 2 != 0) {
+            throw new IllegalArgumentException("Update needs at least one column/value pair and a WHERE column/value pair.");
+        }
+
+        StringBuilder sb = new StringBuilder("UPDATE ").append(requireIdentifier(tableName)).append(" SET ");
+        Object[] values = new Object[params.length / 2];
+        for (int i = 0; i < params.length; i += 2) {
+            String column = requireIdentifier((String) params[i]);
+            if (i == params.length - 2) {
+                sb.append(" WHERE ").append(column).append(" = ?");
+            } else {
+                sb.append(column).append(" = ?");
+                if (i < params.length - 4) {
+                    sb.append(", ");
+                }
+            }
+            values[i / 2] = params[i + 1];
+        }
+        return executePrepared(sb.toString(), values);
+    }
+
+    /**
+     * Deletes records with a prepared statement. Parameters are column/value pairs joined with AND
+     * @param tableName the table to delete from
+     * @param params the column/value pairs of the WHERE clause
+     * @return the number of rows deleted
+     */
+    public static int delete(String tableName, Object... params) {
+        if (params.length < 2 || params.length % 2 != 0) {
+            throw new IllegalArgumentException("Delete needs at least one column/value pair.");
+        }
+        String sql = "DELETE FROM " + requireIdentifier(tableName) + " WHERE " + whereClause(params);
+        return executePrepared(sql, values(params));
+    }
+
+    /**
+     * Selects users matching a column value with a prepared statement
+     * @param column the column to match
+     * @param value the value to match
+     * @return List of users that match
+     */
+    public static List<UserAccount> selectUserRecord(String column, Object value) {
+        String sql = "SELECT * FROM users WHERE " + whereClause(column, value);
+        return executePreparedQuery(sql, resultSet -> new UserAccount(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getInt("numFollowers")
+        ), value);
+    }
+
+    /**
+     * Selects posts matching a column value with a prepared statement
+     * @param column the column to match
+     * @param value the value to match
+     * @return List of posts that match
+     */
+    public static List<Post> selectPostRecord(String column, Object value) {
+        String sql = "SELECT * FROM posts WHERE " + whereClause(column, value);
+        return executePreparedQuery(sql, resultSet -> new Post(
+                resultSet.getInt("id"),
+                resultSet.getInt("userId"),
+                resultSet.getString("content"),
+                resultSet.getInt("numLikes"),
+                new Date(resultSet.getLong("datePosted") * 1000L)
+        ), value);
+    }
+
+    /**
+     * Selects admins matching a column value with a prepared statement
+     * @param column the column to match
+     * @param value the value to match
+     * @return List of admins that match
+     */
+    public static List<AdminAccount> selectAdminRecord(String column, Object value) {
+        String sql = "SELECT * FROM admins WHERE " + whereClause(column, value);
+        return executePreparedQuery(sql, resultSet -> new AdminAccount(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("username"),
+                resultSet.getString("password")
+        ), value);
+    }
+
+    /**
+     * Executes a prepared INSERT, UPDATE or DELETE statement
+     * @param sql the statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the number of rows changed
+     */
+    private static int executePrepared(String sql, Object... params) {
+        try (ConnectionPool.CachingConnection connection = WRITER.getConnection()) {
+            return executeUpdate(connection, sql, params);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes a prepared INSERT statement and reads back the generated key
+     * @param sql the statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the generated ID of the inserted record
+     */
+    private static int executePreparedInsert(String sql, Object... params) {
+        try (ConnectionPool.CachingConnection connection = WRITER.getConnection()) {
+            return executeInsert(connection, sql, params);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Runs a prepared INSERT, UPDATE or DELETE statement on the given connection
+     * @param connection the writer connection
+     * @param sql the statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the number of rows changed
+     */
+    private static int executeUpdate(ConnectionPool.CachingConnection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        bind(statement, params);
+        return statement.executeUpdate();
+    }
+
+    /**
+     * Runs a prepared INSERT statement on the given connection and reads back the generated key
+     * @param connection the writer connection
+     * @param sql the statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the generated ID of the inserted record
+     */
+    private static int executeInsert(ConnectionPool.CachingConnection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        bind(statement, params);
+        statement.executeUpdate();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            return keys.next() ? keys.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs a prepared statement ending in a RETURNING clause on the given connection
+     * @param connection the writer connection
+     * @param sql the statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the first returned column of the first returned row, or -1 if no row was affected
+     */
+    private static int executeReturningInt(ConnectionPool.CachingConnection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        bind(statement, params);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : -1;
+        }
+    }
+
+    /**
+     * Executes a prepared SELECT statement
+     * @param sql the statement, with a placeholder for every value
+     * @param mapper reads each row into an object
+     * @param params the values to bind
+     * @return the objects read from every row
+     */
+    private static <T> List<T> executePreparedQuery(String sql, RowMapper<T> mapper, Object... params) {
+        try (ConnectionPool.CachingConnection connection = READERS.getConnection()) {
+            PreparedStatement statement = connection.prepareCached(sql);
+            bind(statement, params);
+
+            List<T> results = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(mapper.map(resultSet));
+                }
+            }
+            return results;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Binds values to the placeholders of a statement. Dates are stored as epoch seconds
+     * and enums by name, matching how the tables were populated so far
+     * @param statement the statement to bind to
+     * @param params the values to bind, in placeholder order
+     */
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object value = params[i];
+            if (value instanceof Date date) {
+                value = date.getTime() / 1000L;
+            } else if (value instanceof Enum<?> constant) {
+                value = constant.name();
+            }
+            statement.setObject(i + 1, value);
+        }
+    }
+
+    /**
+     * Builds "column = ? AND column = ?" from column/value pairs
+     * @param params the column/value pairs
+     * @return the conditions of a WHERE clause
+     */
+    private static String whereClause(Object... params) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < params.length; i += 2) {
+            sb.append(requireIdentifier((String) params[i])).append(" = ?");
+            if (i < params.length - 2) {
+                sb.append(" AND ");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Picks the values out of column/value pairs
+     * @param params the column/value pairs
+     * @return the values, in order
+     */
+    private static Object[] values(Object... params) {
+        Object[] values = new Object[params.length / 2];
+        for (int i = 1; i < params.length; i += 2) {
+            values[i / 2] = params[i];
+        }
+        return values;
+    }
+
+    /**
+     * Builds a comma separated list of placeholders
+     * @param count the number of placeholders
+     * @return "?, ?, ..." with count placeholders
+     */
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Makes sure a table or column name is a plain identifier, since those cannot be bound as parameters
+     * @param name the table or column name
+     * @return the name, unchanged
+     */
+    private static String requireIdentifier(String name) {
+        if (name == null || !name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid table or column name: " + name);
+        }
+        return name;
+    }
+
     /**
      * Selects all admins from the database
      * @return a list of all admins
      */
     public static List<AdminAccount> selectAllAdmins() {
-        READ_LOCK.lock();
         String sql = "SELECT * FROM admins";
 
         List<AdminAccount> admins = new ArrayList<>();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
@@ -481,8 +1188,6 @@ public class DatabaseController {
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
         return admins;
     }
@@ -493,10 +1198,9 @@ public class DatabaseController {
      * @return a list of all user accounts
      */
     private static List<UserAccount> getUserAccounts(String sql) {
-        READ_LOCK.lock();
         List<UserAccount> searchResults = new ArrayList<>();
 
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
@@ -512,8 +1216,6 @@ public class DatabaseController {
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
         return searchResults;
     }
@@ -528,13 +1230,57 @@ public class DatabaseController {
     }
 
     /**
-     * Selects a user account from the database by username
-     * @param searchQuery the username to search for
+     * Selects the first user accounts in alphabetical order of their usernames, ignoring case,
+     * reading only those rows of the username index
+     * @param limit the most user accounts to return
+     * @return the first user accounts
+     */
+    public static List<UserAccount> selectFirstUserAccounts(int limit) {
+        String sql = "SELECT * FROM users ORDER BY username COLLATE NOCASE LIMIT ?";
+        return executePreparedQuery(sql, resultSet -> new UserAccount(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getInt("numFollowers")
+        ), limit);
+    }
+
+    /**
+     * Selects the first user accounts whose username starts with the search query, or contains
+     * it if it is at least three characters long, ignoring case. Usernames starting with the
+     * query come first, each group in alphabetical order. A short query reads a range of the
+     * username index, a longer one the trigram index of usernames, so neither scans the table
+     * @param searchQuery the text to search for in usernames
+     * @param limit the most user accounts to return
      * @return a list of user accounts that match the search query
      */
-    public static List<UserAccount> selectUserAccountSearchResults(String searchQuery) {
-        String sql = "SELECT * FROM users" + " WHERE username LIKE '%'" + searchQuery + '%';
-        return getUserAccounts(sql);
+    public static List<UserAccount> selectUserAccountSearchResults(String searchQuery, int limit) {
+        RowMapper<UserAccount> mapper = resultSet -> new UserAccount(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getInt("numFollowers")
+        );
+        String query = searchQuery.trim();
+        if (query.codePointCount(0, query.length()) < 3) {
+            // Too short for a trigram: the usernames starting with the query sort between it and
+            // the query followed by the greatest code point
+            String sql = """
+                    SELECT * FROM users WHERE username >= ? COLLATE NOCASE AND username < ? COLLATE NOCASE
+                    ORDER BY username COLLATE NOCASE LIMIT ?
+                    """;
+            return executePreparedQuery(sql, mapper, query, query + "\uDBFF\uDFFF", limit);
+        }
+        String sql = """
+                SELECT users.* FROM users_fts JOIN users ON users.id = users_fts.rowid
+                WHERE users_fts MATCH ?
+                ORDER BY instr(lower(users.username), lower(?)) <> 1, users.username COLLATE NOCASE LIMIT ?
+                """;
+        return executePreparedQuery(sql, mapper, "\"" + query.replace("\"", "\"\"") + "\"", query, limit);
     }
 
     /**
@@ -542,11 +1288,10 @@ public class DatabaseController {
      * @return List of all posts
      */
     public static List<Post> selectAllPosts() {
-        READ_LOCK.lock();
         String sql = "SELECT * FROM posts";
 
         List<Post> posts = new ArrayList<>();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
@@ -561,23 +1306,108 @@ public class DatabaseController {
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
         return posts;
     }
 
+    /**
+     * Selects one page of the posts of the given authors, newest first, using keyset pagination:
+     * the page starts strictly after the (datePosted, id) position of the cursor, so every page
+     * costs the same no matter how deep the reader has scrolled
+     * @param authorIds the IDs of the authors whose posts are selected
+     * @param after the position of the last post of the previous page, or null for the first page
+     * @param limit the most posts to return
+     * @return the page of posts, newest first
+     */
+    public static List<Post> selectPostsPage(Collection<Integer> authorIds, FeedEngine.Cursor after, int limit) {
+        if (authorIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Object> params = new ArrayList<>(authorIds);
+        if (after != null) {
+            params.add(after.datePosted());
+            params.add(after.postId());
+        }
+        params.add(limit);
+
+        return executePreparedQuery(postsPageStatement(authorIds.size(), after != null), resultSet -> new Post(
+                resultSet.getInt("id"),
+                resultSet.getInt("userId"),
+                resultSet.getString("content"),
+                resultSet.getInt("numLikes"),
+                new Date(resultSet.getLong("datePosted") * 1000L)
+        ), params.toArray());
+    }
+
+    /**
+     * Builds the SELECT statement of selectPostsPage
+     * @param authorCount the number of authors, each bound to a placeholder
+     * @param afterCursor true to bind the datePosted and id of a cursor after the authors
+     * @return the statement, with the limit bound last
+     */
+    static String postsPageStatement(int authorCount, boolean afterCursor) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM posts WHERE userId IN (")
+                .append(placeholders(authorCount)).append(")");
+        if (afterCursor) {
+            sql.append(" AND (datePosted, id) < (?, ?)");
+        }
+        return sql.append(" ORDER BY datePosted DESC, id DESC LIMIT ?").toString();
+    }
+
+    /**
+     * Searches the content of posts with the full-text index, best match first. Every word of
+     * the query must appear in a post, the last one possibly as the start of a longer word, so
+     * that results come up while the last word is still being typed
+     * @param query the text to search for
+     * @param offset the number of results to skip, for the pages after the first
+     * @param limit the most posts to return
+     * @return the matching posts, ranked by relevance
+     */
+    public static List<Post> searchPosts(String query, int offset, int limit) {
+        String match = matchExpression(query);
+        if (match.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = """
+                SELECT posts.* FROM posts_fts JOIN posts ON posts.id = posts_fts.rowid
+                WHERE posts_fts MATCH ? ORDER BY posts_fts.rank LIMIT ? OFFSET ?
+                """;
+        return executePreparedQuery(sql, resultSet -> new Post(
+                resultSet.getInt("id"),
+                resultSet.getInt("userId"),
+                resultSet.getString("content"),
+                resultSet.getInt("numLikes"),
+                new Date(resultSet.getLong("datePosted") * 1000L)
+        ), match, limit, offset);
+    }
+
+    /**
+     * Turns the text typed by a user into an FTS5 query, quoting every word so that quotes and
+     * operators in the text are searched for literally
+     * @param text the text typed by the user
+     * @return the FTS5 query, or an empty string if the text has no words
+     */
+    private static String matchExpression(String text) {
+        StringJoiner words = new StringJoiner(" ");
+        for (String word : text.trim().split("\\s+")) {
+            // Words made only of separators would be empty phrases, which match nothing
+            if (word.codePoints().anyMatch(Character::isLetterOrDigit)) {
+                words.add("\"" + word.replace("\"", "\"\"") + "\"");
+            }
+        }
+        return words.length() == 0 ? "" : words + "*";
+    }
+
     /**
      * Selects all posts from the database for a given user account
      * @param account the user account to select posts for
      * @return a list of all posts for the user account
      */
     public static List<Post> selectAllPosts (UserAccount account) {
-        READ_LOCK.lock();
         String sql = "SELECT * FROM posts" + " WHERE userId = " + account.getId();
 
         List<Post> posts = new ArrayList<>();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
@@ -592,8 +1422,6 @@ public class DatabaseController {
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
         return posts;
     }
@@ -604,16 +1432,10 @@ public class DatabaseController {
      * @return a list of all reports
      */
     public static <T extends Report> List<T> selectAllReports(Class<T> reportClass) {
-        READ_LOCK.lock();
-        String table = switch (reportClass.getSimpleName()) {
-            case "UserReport" -> "user_reports";
-            case "PostReport" -> "post_reports";
-            default -> throw new IllegalArgumentException("Invalid report class");
-        };
-        String sql = "SELECT * FROM " + table;
+        String sql = "SELECT * FROM " + reportTable(reportClass);
 
         List<T> reports = new ArrayList<>();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
@@ -635,12 +1457,45 @@ public class DatabaseController {
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
         return reports;
     }
 
+    /**
+     * Selects the reports matching a column value with a prepared statement
+     * @param reportClass the class of the report to select (UserReport or PostReport)
+     * @param column the column to match
+     * @param value the value to match
+     * @return List of reports that match
+     */
+    public static <T extends Report> List<T> selectReportRecord(Class<T> reportClass, String column, Object value) {
+        String sql = "SELECT * FROM " + reportTable(reportClass) + " WHERE " + whereClause(column, value);
+        return executePreparedQuery(sql, resultSet -> {
+            int id = resultSet.getInt("id");
+            String reason = resultSet.getString("reason");
+            Report.Status status = Report.Status.valueOf(resultSet.getString("status"));
+            Date date = new Date(resultSet.getLong("date") * 1000L);
+            int reporterId = resultSet.getInt("reporterId");
+            if (reportClass == UserReport.class) {
+                return reportClass.cast(new UserReport(id, reporterId, status, reason, date, resultSet.getInt("reporteeId")));
+            }
+            return reportClass.cast(new PostReport(id, reporterId, status, reason, date, resultSet.getInt("postId")));
+        }, value);
+    }
+
+    /**
+     * Maps a report class to its table
+     * @param reportClass UserReport or PostReport
+     * @return the name of the table holding that kind of report
+     */
+    private static String reportTable(Class<? extends Report> reportClass) {
+        return switch (reportClass.getSimpleName()) {
+            case "UserReport" -> "user_reports";
+            case "PostReport" -> "post_reports";
+            default -> throw new IllegalArgumentException("Invalid report class");
+        };
+    }
+
     /**
      * Selects all user reports from the database
      * @return a list of all user reports
@@ -658,33 +1513,29 @@ public class DatabaseController {
     }
 
     /**
-     * Selects all follower accounts for a given user account
-     * @param account the user account to select followers for
-     * @return a list of all follower accounts
+     * Selects all accounts followed by a given user account
+     * @param account the user account to select followees for
+     * @return a list of all followed accounts
      */
     public static List<UserAccount> selectAllFollows(UserAccount account) {
-        READ_LOCK.lock();
-        String sql = "SELECT * FROM follows" + "WHERE followerId = " + account.getId();
+        String sql = "SELECT users.* FROM follows JOIN users ON users.id = follows.followeeId WHERE follows.followerId = ?";
+        return executePreparedQuery(sql, resultSet -> new UserAccount(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getInt("numFollowers")
+        ), account.getId());
+    }
 
-        List<UserAccount> follows = new ArrayList<>();
-        try (Connection connection = connect(DB_PATH);
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql))
-        {
-            while (resultSet.next()) {
-                int followeeId = resultSet.getInt("followeeId");
-                UserAccount followee = selectAllUsers().stream()
-                        .filter(user -> user.getId() == followeeId)
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("Followee not found"));
-                follows.add(followee);
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
-        }
-        return follows;
+    /**
+     * Selects the IDs of all users the given userAccount follows.
+     * @param userAccount the user account to select followees for
+     * @return a set of user IDs followed by the given userAccount
+     */
+    public static IntSet selectAllUserFolloweesFromUser(UserAccount userAccount) {
+        return selectIds("SELECT followeeId FROM follows WHERE followerId = ?", userAccount.getId());
     }
 
     /**
@@ -692,51 +1543,76 @@ public class DatabaseController {
      * @param post the post to select likes for
      * @return a set of all user likes (unique)
      */
-    public static Set<Integer> selectAllUserLikesFromPost(Post post) {
-        READ_LOCK.lock();
-        String sql = "SELECT * FROM likes" + " WHERE postId = " + post.getId();
+    public static IntSet selectAllUserLikesFromPost(Post post) {
+        return selectIds("SELECT userId FROM likes WHERE postId = ?", post.getId());
+    }
+
+    /**
+     * Selects all user IDs who follow the given userAccount.
+     * @param userAccount the user account to select followers for
+     * @return a set of user IDs who follow the given userAccount
+     */
+    public static IntSet selectAllUserFollowsFromUser(UserAccount userAccount) {
+        return selectIds("SELECT followerId FROM follows WHERE followeeId = ?", userAccount.getId());
+    }
 
-        Set<Integer> likes = new HashSet<>();
-        try (Connection connection = connect(DB_PATH);
+    /**
+     * Selects every like in one pass over the likes table
+     * @return the IDs of the users who liked each post, by post ID
+     */
+    public static Map<Integer, IntSet> selectAllLikes() {
+        return selectGroupedIds("SELECT postId, userId FROM likes");
+    }
+
+    /**
+     * Selects every follow in one pass over the follows table
+     * @return the IDs of the users each user follows, by follower ID
+     */
+    public static Map<Integer, IntSet> selectAllFollows() {
+        return selectGroupedIds("SELECT followerId, followeeId FROM follows");
+    }
+
+    /**
+     * Reads a two-column query of IDs into sets of the second ID, grouped by the first
+     * @param sql the SELECT statement to execute, selecting the grouping ID first
+     * @return the sets of IDs, by grouping ID
+     */
+    private static Map<Integer, IntSet> selectGroupedIds(String sql) {
+        Map<Integer, IntSet> grouped = new HashMap<>();
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql))
         {
             while (resultSet.next()) {
-                int userId = resultSet.getInt("userId");
-                likes.add(userId);
+                grouped.computeIfAbsent(resultSet.getInt(1), id -> new IntSet()).add(resultSet.getInt(2));
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
-        return likes;
+        return grouped;
     }
 
     /**
-     * Selects all user IDs who follow the given userAccount.
-     * @param userAccount the user account to select followers for
-     * @return a set of user IDs who follow the given userAccount
+     * Reads the IDs selected by a one-column query with a prepared statement, without boxing them
+     * @param sql the SELECT statement, with a placeholder for every value
+     * @param params the values to bind
+     * @return the set of IDs selected
      */
-    public static Set<Integer> selectAllUserFollowsFromUser(UserAccount userAccount) {
-        READ_LOCK.lock();
-        String sql = "SELECT * FROM follows WHERE followeeId = " + userAccount.getId();
-
-        Set<Integer> followerIds = new HashSet<>();
-        try (Connection connection = connect(DB_PATH);
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql))
-        {
-            while (resultSet.next()) {
-                int followerId = resultSet.getInt("followerId");
-                followerIds.add(followerId);
+    private static IntSet selectIds(String sql, Object... params) {
+        try (ConnectionPool.CachingConnection connection = READERS.getConnection()) {
+            PreparedStatement statement = connection.prepareCached(sql);
+            bind(statement, params);
+
+            IntSet ids = new IntSet();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                }
             }
+            return ids;
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
-        return followerIds;
     }
 
     /**
@@ -756,8 +1632,7 @@ public class DatabaseController {
      * @return List of posts that match query
      */
     private static List<Post> executeSelectPosts(String sql) {
-        READ_LOCK.lock();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql)) {
 
@@ -775,8 +1650,6 @@ public class DatabaseController {
             return results;
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
     }
 
@@ -797,8 +1670,7 @@ public class DatabaseController {
      * @return List of users that match query
      */
     private static List<UserAccount> executeSelectUser(String sql) {
-        READ_LOCK.lock();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql)) {
 
@@ -817,8 +1689,6 @@ public class DatabaseController {
             return results;
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
     }
 
@@ -839,8 +1709,7 @@ public class DatabaseController {
      * @return List of admins that match query
      */
     private static List<AdminAccount> executeSelectAdmin(String sql) {
-        READ_LOCK.lock();
-        try (Connection connection = connect(DB_PATH);
+        try (Connection connection = READERS.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql)) {
 
@@ -858,8 +1727,6 @@ public class DatabaseController {
             return results;
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            READ_LOCK.unlock();
         }
     }
 }
\ No newline at end of file
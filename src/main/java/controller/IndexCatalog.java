@@ -0,0 +1,151 @@
+package controller;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The secondary indexes the queries of {@link DatabaseController} rely on, kept in step with
+ * the database.
+ *
+ * {@link #ensure(Connection)} compares the indexes of the database with the managed set: a
+ * missing index is created, an index whose definition has changed is dropped and created again,
+ * and a managed index that is no longer in the set is dropped. The statistics of the query
+ * planner are refreshed once anything has changed. Existing databases are therefore upgraded the
+ * next time the application starts, and a database that is already up to date costs one read of
+ * {@code sqlite_master}.
+ */
+public class IndexCatalog {
+    /**
+     * The name prefix of every managed index. Indexes with this prefix that are not in the set
+     * are dropped.
+     */
+    public static final String PREFIX = "idx_";
+
+    private final List<Index> indexes;
+
+    /**
+     * A managed index.
+     *
+     * @param name the name of the index, starting with {@link #PREFIX}
+     * @param table the indexed table
+     * @param columns the indexed columns, with their collation and order, e.g. {@code userId, datePosted DESC}
+     */
+    public record Index(String name, String table, String columns) {
+        public Index {
+            if (!name.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Index name must start with " + PREFIX + ": " + name);
+            }
+        }
+
+        /**
+         * @return the statement creating the index, as SQLite stores it in {@code sqlite_master}
+         */
+        public String createSql() {
+            return "CREATE INDEX " + name + " ON " + table + " (" + columns + ")";
+        }
+    }
+
+    /**
+     * What {@link #ensure(Connection)} found and changed.
+     *
+     * @param created indexes that were missing and have been created
+     * @param rebuilt indexes whose definition had changed and have been created again
+     * @param dropped managed indexes no longer in the set, which have been dropped
+     * @param verified indexes that were already up to date
+     */
+    public record Result(List<String> created, List<String> rebuilt, List<String> dropped, List<String> verified) {
+        /**
+         * @return true if the indexes of the database were changed
+         */
+        public boolean changed() {
+            return !created.isEmpty() || !rebuilt.isEmpty() || !dropped.isEmpty();
+        }
+    }
+
+    /**
+     * @param indexes the managed indexes
+     */
+    public IndexCatalog(List<Index> indexes) {
+        this.indexes = List.copyOf(indexes);
+    }
+
+    /**
+     * @return the managed indexes
+     */
+    public List<Index> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Brings the indexes of the database in line with the managed set, in one transaction.
+     *
+     * @param connection a writable connection to the database
+     * @return what was found and changed
+     * @throws SQLException if the indexes cannot be read or changed
+     */
+    public Result ensure(Connection connection) throws SQLException {
+        Map<String, String> existing = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND name GLOB '" + PREFIX + "*'")) {
+            while (resultSet.next()) {
+                existing.put(resultSet.getString("name"), resultSet.getString("sql"));
+            }
+        }
+
+        List<String> created = new ArrayList<>();
+        List<String> rebuilt = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        List<String> verified = new ArrayList<>();
+
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (Index index : indexes) {
+                String sql = existing.remove(index.name());
+                if (sql == null) {
+                    statement.executeUpdate(index.createSql());
+                    created.add(index.name());
+                } else if (!normalize(sql).equals(normalize(index.createSql()))) {
+                    statement.executeUpdate("DROP INDEX " + index.name());
+                    statement.executeUpdate(index.createSql());
+                    rebuilt.add(index.name());
+                } else {
+                    verified.add(index.name());
+                }
+            }
+            for (String name : existing.keySet()) {
+                statement.executeUpdate("DROP INDEX \"" + name.replace("\"", "\"\"") + "\"");
+                dropped.add(name);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        Result result = new Result(created, rebuilt, dropped, verified);
+        if (result.changed()) {
+            // Lets the query planner weigh the new indexes against the tables they cover
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collapses whitespace and case, so that definitions only differ by their meaning.
+     */
+    private static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ").replace("( ", "(").replace(" )", ")").toLowerCase(Locale.ROOT);
+    }
+}
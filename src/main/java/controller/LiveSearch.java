@@ -0,0 +1,168 @@
+package controller;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the searches of a search-as-you-type field in the background and shows only the results
+ * of the latest input.
+ *
+ * A search submitted with {@link #submit(Supplier, Consumer)} starts once no newer one has been
+ * submitted for {@link Config#delay()}, so a burst of keystrokes costs one search. At most one
+ * search runs at a time, through {@link TaskExecutor}: input that arrives while it runs replaces
+ * the search waiting behind it, so fast typing never queues up searches that are already out of
+ * date. A search superseded by newer input, or cancelled, is not rendered when it completes.
+ *
+ * Except for {@link #getMetrics()}, the methods must be called on the thread of the given
+ * interface executor, which also renders the results and keeps the state of the LiveSearch.
+ */
+public class LiveSearch {
+    private final Config config;
+    private final Executor ui;
+    private final Executor debounce;
+
+    // Interface thread only
+    private long generation = 0;
+    private Runnable pending;
+    private boolean ready = false;
+    private boolean running = false;
+
+    // Metrics
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * Timing settings of the search.
+     *
+     * @param delay how long the input must stay unchanged before a search starts
+     */
+    public record Config(Duration delay) {
+        public Config {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("Delay must not be negative");
+            }
+        }
+
+        /**
+         * Builds the default configuration, which can be overridden with the
+         * {@code y.search.debounceMillis} system property.
+         *
+         * @return the default search configuration
+         */
+        public static Config defaults() {
+            return new Config(Duration.ofMillis(Long.getLong("y.search.debounceMillis", 250L)));
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the search counters.
+     *
+     * @param submitted number of searches submitted, one per change of the input
+     * @param started number of searches that ran
+     * @param discarded number of searches that ran but were superseded before they completed
+     */
+    public record Metrics(long submitted, long started, long discarded) {}
+
+    /**
+     * Creates the search.
+     *
+     * @param config the timing settings
+     * @param ui runs the state changes and rendering of the search, e.g. {@link TaskExecutor#FX}
+     */
+    public LiveSearch(Config config, Executor ui) {
+        this.config = config;
+        this.ui = ui;
+        this.debounce = CompletableFuture.delayedExecutor(config.delay().toNanos(), TimeUnit.NANOSECONDS, ui);
+    }
+
+    /**
+     * Submits a search for the latest input, to start once the input has stayed unchanged for
+     * the configured delay. Replaces the search submitted before it, if it has not started yet.
+     *
+     * @param search the blocking search, run on a background thread
+     * @param render shows the results of the search, run on the interface thread unless superseded
+     * @param <T> the type of the results
+     */
+    public <T> void submit(Supplier<T> search, Consumer<T> render) {
+        long current = schedule(search, render);
+        debounce.execute(() -> {
+            if (current == generation) {
+                ready = true;
+                startPending();
+            }
+        });
+    }
+
+    /**
+     * Submits a search to start without waiting, e.g. when a button is pressed, or as soon as
+     * the search running now completes.
+     *
+     * @param search the blocking search, run on a background thread
+     * @param render shows the results of the search, run on the interface thread unless superseded
+     * @param <T> the type of the results
+     */
+    public <T> void submitNow(Supplier<T> search, Consumer<T> render) {
+        schedule(search, render);
+        ready = true;
+        startPending();
+    }
+
+    /**
+     * Drops the search waiting to start, and makes sure the results of the one running now are
+     * not rendered, e.g. when the input is cleared.
+     */
+    public void cancel() {
+        generation++;
+        pending = null;
+        ready = false;
+    }
+
+    /**
+     * @return a snapshot of the search counters
+     */
+    public Metrics getMetrics() {
+        return new Metrics(submitted.sum(), started.sum(), discarded.sum());
+    }
+
+    private <T> long schedule(Supplier<T> search, Consumer<T> render) {
+        submitted.increment();
+        long current = ++generation;
+        ready = false;
+        pending = () -> {
+            running = true;
+            started.increment();
+            TaskExecutor.supply(search).whenCompleteAsync((result, e) -> {
+                running = false;
+                boolean latest = current == generation;
+                startPending();
+                if (!latest) {
+                    discarded.increment();
+                } else if (e != null) {
+                    TaskExecutor.logFailure(e);
+                } else {
+                    render.accept(result);
+                }
+            }, ui).exceptionally(TaskExecutor::logFailure);
+        };
+        return current;
+    }
+
+    /**
+     * Starts the pending search once its delay has passed and no other search is running.
+     */
+    private void startPending() {
+        if (running || !ready || pending == null) {
+            return;
+        }
+        Runnable next = pending;
+        pending = null;
+        ready = false;
+        next.run();
+    }
+}
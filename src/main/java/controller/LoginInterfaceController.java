@@ -8,7 +8,6 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
-import model.Report;
 import model.ReportSystem;
 import model.UserSystem;
 import view.RegisterInterface;
@@ -51,58 +50,66 @@ public class LoginInterfaceController {
      * Upon successful authentication, it navigates to the respective dashboard based on the user type.
      * If authentication fails, an error alert is displayed.
      *
+     * The accounts are looked up on a background thread, since the first login loads them from
+     * the database; the login button stays disabled until the result is back.
+     *
      * @param event the ActionEvent triggered by the login button press
      */
     @FXML
     void handleLoginButton(ActionEvent event) {
-        boolean adminLoginSuccessful = ReportSystem.getInstance().authenticateAdmin(usernameTextField.getText(), passwordField.getText());
-        boolean userLoginSuccessful = UserSystem.getInstance().authenticateUser(usernameTextField.getText(), passwordField.getText());
-
-        if (adminLoginSuccessful) {
-            // Set current admin of application
-            ReportSystem.getInstance().setCurrentAdmin(ReportSystemController.getInstance().getAdminByUsername(usernameTextField.getText()));
-            Locale currentLocale = LanguageManager.getInstance().getCurrentLocale();
-
-            this.loginPane.getScene().getWindow().hide();
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/admin.fxml"));
-                loader.setResources(ResourceBundle.getBundle("lang.Admin", currentLocale));
-                Parent root = loader.load();
-
-                Stage stage = new Stage();
-                stage.setScene(new Scene(root));
-                stage.show();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        String username = usernameTextField.getText();
+        String password = passwordField.getText();
+
+        TaskExecutor.<Runnable>supply(loginButton, () -> {
+            if (ReportSystem.getInstance().authenticateAdmin(username, password)) {
+                // Set current admin of application
+                ReportSystem.getInstance().setCurrentAdmin(ReportSystemController.getInstance().getAdminByUsername(username));
+                return () -> openDashboard("/fxml/admin.fxml", "lang.Admin");
             }
-        }
-        else if (userLoginSuccessful) {
-            // Set current user of application
-            UserSystem.getInstance().setCurrentUser(UserSystemController.getInstance().getUserByUsername(usernameTextField.getText()));
-            Locale currentLocale = LanguageManager.getInstance().getCurrentLocale();
-
-            this.loginPane.getScene().getWindow().hide();
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/user.fxml"));
-                loader.setResources(ResourceBundle.getBundle("lang.User", currentLocale));
-                Parent root = loader.load();
-
-                Stage stage = new Stage();
-                stage.setScene(new Scene(root));
-                stage.show();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+            if (UserSystem.getInstance().authenticateUser(username, password)) {
+                // Set current user of application
+                UserSystem.getInstance().setCurrentUser(UserSystemController.getInstance().getUserByUsername(username));
+                return () -> openDashboard("/fxml/user.fxml", "lang.User");
             }
-        } else {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            ResourceBundle bundle = LanguageManager.getInstance().getResourceBundle("Login");
-            alert.setTitle(bundle.getString("alert.title"));
-            alert.setHeaderText(bundle.getString("alert.header"));
-            alert.setContentText(bundle.getString("alert.content"));
-            alert.showAndWait();
+            return this::showLoginError;
+        }).thenAcceptAsync(Runnable::run, TaskExecutor.FX).exceptionally(TaskExecutor::logFailure);
+    }
+
+    /**
+     * Hides the login window and opens the dashboard of the account that logged in.
+     *
+     * @param fxml the path of the dashboard FXML file
+     * @param bundleName the base name of the resource bundle of the dashboard
+     */
+    private void openDashboard(String fxml, String bundleName) {
+        Locale currentLocale = LanguageManager.getInstance().getCurrentLocale();
+
+        this.loginPane.getScene().getWindow().hide();
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
+            loader.setResources(ResourceBundle.getBundle(bundleName, currentLocale));
+            Parent root = loader.load();
+
+            Stage stage = new Stage();
+            stage.setScene(new Scene(root));
+            stage.show();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Shows the error alert of a failed login.
+     */
+    private void showLoginError() {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        ResourceBundle bundle = LanguageManager.getInstance().getResourceBundle("Login");
+        alert.setTitle(bundle.getString("alert.title"));
+        alert.setHeaderText(bundle.getString("alert.header"));
+        alert.setContentText(bundle.getString("alert.content"));
+        alert.showAndWait();
+    }
+
     /**
      * Handles the action event triggered when the register hyperlink is clicked.
      * This method hides the current login window and opens the registration interface.
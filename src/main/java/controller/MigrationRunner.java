@@ -0,0 +1,273 @@
+package controller;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upgrades the schema of an existing database with ordered, versioned migrations.
+ *
+ * The version of the schema is kept in {@code PRAGMA user_version}: a database created by the
+ * CREATE TABLE statements of {@link DatabaseController} is at version 0, and every migration
+ * moves it up by one. {@link #migrate(Connection)} applies the migrations above the current
+ * version in order, each in its own transaction together with the new version, so a failed
+ * migration leaves the database at the last version that was fully applied.
+ *
+ * Rewriting every row of a large table in one transaction would hold the write lock for as long
+ * as it takes, so a migration that changes existing rows registers a {@link Backfill} instead.
+ * {@link #runBackfills(Connections)} works through the rows in chunks of rowids, each in
+ * its own short transaction that also records how far the backfill got, so other writes go on
+ * between chunks and a backfill that is interrupted resumes where it stopped on the next start.
+ */
+public class MigrationRunner {
+    // Progress of every backfill registered by a migration
+    static final String CREATE_BACKFILL_TABLE = """
+            CREATE TABLE IF NOT EXISTS schema_backfills (
+                name TEXT PRIMARY KEY,
+                lastRowId INTEGER NOT NULL DEFAULT 0,
+                done INTEGER NOT NULL DEFAULT 0
+            )
+            """;
+
+    private final List<Migration> migrations;
+    private final List<Backfill> backfills;
+
+    /**
+     * Applies one migration through the connection it is given, which is inside a transaction.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Applies one chunk of a backfill through the connection it is given, which is inside a transaction.
+     */
+    @FunctionalInterface
+    public interface Chunk {
+        /**
+         * @param connection the connection to write through
+         * @param fromRowId the first rowid of the chunk
+         * @param toRowId the last rowid of the chunk
+         */
+        void apply(Connection connection, long fromRowId, long toRowId) throws SQLException;
+    }
+
+    /**
+     * A change of the schema.
+     *
+     * @param version the version of the schema once the migration has been applied, starting at 1
+     * @param description what the migration changes
+     * @param step the statements of the migration
+     */
+    public record Migration(int version, String description, Step step) {}
+
+    /**
+     * A change of the existing rows of a table, applied in chunks after the migration that
+     * registered it. Rows inserted after the backfill started are expected to be written
+     * correctly by the application already.
+     *
+     * @param name the name the progress of the backfill is recorded under
+     * @param table the table whose rows are changed
+     * @param chunkSize the number of rowids changed per transaction
+     * @param chunk the statements changing one chunk of rows
+     */
+    public record Backfill(String name, String table, int chunkSize, Chunk chunk) {
+        public Backfill {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be at least 1");
+            }
+        }
+
+        /**
+         * Registers the backfill, so that it is run. Called from the step of a migration.
+         *
+         * @param connection the connection of the migration
+         */
+        public void register(Connection connection) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO schema_backfills (name) VALUES (?)")) {
+                statement.setString(1, name);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * A source of connections to the database, such as a connection pool.
+     */
+    @FunctionalInterface
+    public interface Connections {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * What {@link #migrate(Connection)} applied.
+     *
+     * @param fromVersion the version of the schema before the migrations
+     * @param toVersion the version of the schema after the migrations
+     * @param applied the descriptions of the migrations applied, in order
+     */
+    public record Result(int fromVersion, int toVersion, List<String> applied) {}
+
+    /**
+     * @param migrations the migrations, in version order
+     * @param backfills the backfills the migrations may register
+     */
+    public MigrationRunner(List<Migration> migrations, List<Backfill> backfills) {
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).version() != i + 1) {
+                throw new IllegalArgumentException("Migration " + (i + 1) + " has version " + migrations.get(i).version());
+            }
+        }
+        this.migrations = List.copyOf(migrations);
+        this.backfills = List.copyOf(backfills);
+    }
+
+    /**
+     * @return the version of the schema once every migration has been applied
+     */
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    /**
+     * Applies every migration above the version of the database, in order.
+     *
+     * @param connection a writable connection to the database
+     * @return what was applied
+     * @throws SQLException if a migration fails, which leaves the database at the version before it
+     * @throws IllegalStateException if the database was migrated by a newer version of the application
+     */
+    public Result migrate(Connection connection) throws SQLException {
+        int fromVersion = readVersion(connection);
+        if (fromVersion > getLatestVersion()) {
+            throw new IllegalStateException("Database schema version " + fromVersion
+                    + " is newer than the latest known version " + getLatestVersion());
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CREATE_BACKFILL_TABLE);
+        }
+
+        List<String> applied = new ArrayList<>();
+        for (Migration migration : migrations.subList(fromVersion, migrations.size())) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                migration.step().apply(connection);
+                statement.executeUpdate("PRAGMA user_version = " + migration.version());
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            applied.add(migration.version() + ": " + migration.description());
+        }
+        return new Result(fromVersion, readVersion(connection), applied);
+    }
+
+    /**
+     * Runs every registered backfill that has not finished, chunk by chunk. Each chunk checks a
+     * connection out and commits before the next one, so that other writes go on in between.
+     *
+     * @param connections where each chunk gets its connection
+     * @return the number of chunks applied
+     * @throws SQLException if a chunk fails; the chunks committed before it are kept
+     */
+    public synchronized int runBackfills(Connections connections) throws SQLException {
+        int chunks = 0;
+        for (Backfill backfill : backfills) {
+            long lastRowId;
+            long maxRowId;
+            try (Connection connection = connections.get();
+                 PreparedStatement statement = connection.prepareStatement(
+                         "SELECT lastRowId FROM schema_backfills WHERE name = ? AND done = 0")) {
+                statement.setString(1, backfill.name());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        continue;
+                    }
+                    lastRowId = resultSet.getLong("lastRowId");
+                }
+                try (Statement max = connection.createStatement();
+                     ResultSet resultSet = max.executeQuery("SELECT COALESCE(MAX(rowid), 0) FROM " + backfill.table())) {
+                    maxRowId = resultSet.getLong(1);
+                }
+            }
+
+            if (lastRowId >= maxRowId) {
+                // Nothing left to change, e.g. the table was empty
+                applyChunk(connections, backfill, null, lastRowId, lastRowId, true);
+            }
+            while (lastRowId < maxRowId) {
+                long toRowId = Math.min(maxRowId, lastRowId + backfill.chunkSize());
+                applyChunk(connections, backfill, backfill.chunk(), lastRowId + 1, toRowId, toRowId == maxRowId);
+                lastRowId = toRowId;
+                chunks++;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Applies one chunk, if any, and records the progress of the backfill in the same transaction.
+     */
+    private void applyChunk(Connections connections, Backfill backfill, Chunk chunk, long fromRowId, long toRowId,
+                            boolean last) throws SQLException {
+        try (Connection connection = connections.get()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement progress = connection.prepareStatement(
+                    "UPDATE schema_backfills SET lastRowId = ?, done = ? WHERE name = ?")) {
+                if (chunk != null) {
+                    chunk.apply(connection, fromRowId, toRowId);
+                }
+                progress.setLong(1, toRowId);
+                progress.setInt(2, last ? 1 : 0);
+                progress.setString(3, backfill.name());
+                progress.executeUpdate();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Adds a column to a table unless it already has one with that name, e.g. because it was
+     * added by hand before the schema was versioned. Called from the step of a migration.
+     *
+     * @param connection the connection of the migration
+     * @param table the table to add the column to
+     * @param column the name of the column
+     * @param definition the type and constraints of the column
+     */
+    public static void addColumnIfMissing(Connection connection, String table, String column, String definition)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (resultSet.next()) {
+                    if (resultSet.getString("name").equalsIgnoreCase(column)) {
+                        return;
+                    }
+                }
+            }
+            statement.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static int readVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -79,6 +79,8 @@ public class RegisterInterfaceController {
      * Performs validation on input fields, checks for the existence of the username,
      * and registers a new account if validations pass. Displays alert dialogs
      * for error or success notifications based on the registration outcome.
+     * The check and the registration run on a background thread, during which the
+     * register button is disabled.
      *
      * @param event the ActionEvent triggered by pressing the register button
      */
@@ -88,24 +90,27 @@ public class RegisterInterfaceController {
         String email = emailTextField.getText();
         String username = usernameTextField.getText();
         String password = passwordField.getText();
+        String type = accountType;
         ResourceBundle bundle = LanguageManager.getInstance().getResourceBundle("Register");
 
-        if (username.isEmpty() || email.isEmpty() || password.isEmpty() || accountType == null) {
+        if (username.isEmpty() || email.isEmpty() || password.isEmpty() || type == null) {
             // Show an alert if any field is empty
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle(bundle.getString("alertError.title"));
             alert.setHeaderText(bundle.getString("alertError.header"));
             alert.setContentText(bundle.getString("alertError.content"));
             alert.showAndWait();
-        } else if (ReportSystem.getInstance().adminAccountExists(username) || UserSystem.getInstance().userAccountExists(username)) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle(bundle.getString("alertError.title"));
-            alert.setHeaderText(bundle.getString("alertError.existsHeader"));
-            alert.setContentText(bundle.getString("alertError.existsContent"));
-            alert.showAndWait();
-        } else {
+            return;
+        }
+
+        // The existence check and the insert run in the background; the button stays disabled until they are done
+        TaskExecutor.supply(registerButton, () -> {
+            if (ReportSystem.getInstance().adminAccountExists(username) || UserSystem.getInstance().userAccountExists(username)) {
+                return false;
+            }
+
             // Call the AccountFactory and User/Report-SystemController singleton to handle registration
-            Account account = AccountFactory.createAccount(accountType, name, email, username, password);
+            Account account = AccountFactory.createAccount(type, name, email, username, password);
 
             // Determine appropriate controller based on account type
             if (account instanceof UserAccount) {
@@ -113,6 +118,16 @@ public class RegisterInterfaceController {
             } else if (account instanceof AdminAccount) {
                 ReportSystemController.getInstance().addAdmin((AdminAccount) account);
             }
+            return true;
+        }).thenAcceptAsync(registered -> {
+            if (!registered) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle(bundle.getString("alertError.title"));
+                alert.setHeaderText(bundle.getString("alertError.existsHeader"));
+                alert.setContentText(bundle.getString("alertError.existsContent"));
+                alert.showAndWait();
+                return;
+            }
 
             // Show a success popup
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -128,7 +143,7 @@ public class RegisterInterfaceController {
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
-        }
+        }, TaskExecutor.FX).exceptionally(TaskExecutor::logFailure);
     }
 
     /**
@@ -4,14 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import model.*;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 @Getter
 @Setter
 public class ReportSystemController {
     private ReportSystem reportSystem;
-    private static ExecutorService threadPool = Executors.newFixedThreadPool(10);
 
     /**
      * Singleton instance of the ReportSystemController class.
@@ -55,25 +51,24 @@ public class ReportSystemController {
      * @return the AdminAccount object corresponding to the given username
      */
     public AdminAccount getAdminByUsername(String username) {
-        String sql = DatabaseController.generateSelectStatement("admins", "username", username);
-        return DatabaseController.selectAdminRecord(sql).getFirst();
+        AdminAccount admin = reportSystem.getAdminByUsername(username);
+        return admin != null ? admin : DatabaseController.selectAdminRecord("username", username).getFirst();
     }
 
     /**
      * Adds a new admin account to the system and inserts the corresponding record into the database.
      * This method adds the provided AdminAccount object to the list of admin accounts in the report system
      * and constructs an SQL insert statement to store the admin account details in the database.
-     * The entire operation is performed asynchronously using a thread pool.
+     * The entire operation is performed asynchronously on the background executor.
      *
      * @param adminAccount the AdminAccount object containing details such as name, email, username, and password
      *                      to be added to the report system and persisted in the database.
      */
     public void addAdmin(AdminAccount adminAccount) {
-        threadPool.submit(() -> {
-            reportSystem.getAdminAccounts().add(adminAccount);
-            String sql = DatabaseController.generateInsertStatement("admins", adminAccount.getName(), adminAccount.getEmail(),
-                    adminAccount.getUsername(), adminAccount.getPassword());
-            DatabaseController.insertRecord(sql);
+        TaskExecutor.run(() -> {
+            adminAccount.setId(DatabaseController.insert("admins", adminAccount.getName(), adminAccount.getEmail(),
+                    adminAccount.getUsername(), adminAccount.getPassword()));
+            reportSystem.addAdmin(adminAccount);
         });
     }
 
@@ -85,11 +80,11 @@ public class ReportSystemController {
      *                   reporting, status, report date, reporting user ID, and reported user ID.
      */
     public void submitUserReport(UserReport userReport) {
-        threadPool.submit(() -> {
-            reportSystem.getUserReports().add(userReport);
-            String sql = DatabaseController.generateInsertStatement("user_reports", userReport.getReason(), userReport.getStatus().name(),
-                    userReport.getDateReported(), userReport.getReportingUserId(), userReport.getReportedUserId());
-            DatabaseController.insertRecord(sql);
+        TaskExecutor.run(() -> {
+            reportSystem.addUserReport(userReport);
+            userReport.setId(DatabaseController.insert("user_reports", DatabaseController.USER_REPORT_COLUMNS,
+                    userReport.getReason(), userReport.getStatus().name(), userReport.getDateReported(),
+                    userReport.getReportingUserId(), userReport.getReportedUserId()));
         });
     }
 
@@ -100,11 +95,11 @@ public class ReportSystemController {
      * @param postReport the PostReport object containing details of the reported post
      */
     public void submitPostReport(PostReport postReport) {
-        threadPool.submit(() -> {
-            reportSystem.getPostReports().add(postReport);
-            String sql = DatabaseController.generateInsertStatement("post_reports", postReport.getReason(), postReport.getStatus().name(),
-                    postReport.getDateReported(), postReport.getReportingUserId(), postReport.getReportedPostId());
-            DatabaseController.insertRecord(sql);
+        TaskExecutor.run(() -> {
+            reportSystem.addPostReport(postReport);
+            postReport.setId(DatabaseController.insert("post_reports", DatabaseController.POST_REPORT_COLUMNS,
+                    postReport.getReason(), postReport.getStatus().name(), postReport.getDateReported(),
+                    postReport.getReportingUserId(), postReport.getReportedPostId()));
         });
     }
 
@@ -117,11 +112,10 @@ public class ReportSystemController {
      * @param userReport the user report to be removed and deleted
      */
     public void adminRemoveUserReport(AdminAccount adminAccount, UserReport userReport) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             adminAccount.removeReport(userReport);
-            reportSystem.getUserReports().remove(userReport);
-            String sql = DatabaseController.generateDeleteStatement("user_reports", "id", userReport.getId());
-            DatabaseController.deleteRecord(sql);
+            reportSystem.removeReport(userReport);
+            DatabaseController.delete("user_reports", "id", userReport.getId());
         });
     }
 
@@ -133,11 +127,10 @@ public class ReportSystemController {
      * @param postReport the PostReport to be removed from the system
      */
     public void adminRemovePostReport(AdminAccount adminAccount, PostReport postReport) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             adminAccount.removeReport(postReport);
-            reportSystem.getPostReports().remove(postReport);
-            String sql = DatabaseController.generateDeleteStatement("users", "id", postReport.getId());
-            DatabaseController.deleteRecord(sql);
+            reportSystem.removeReport(postReport);
+            DatabaseController.delete("post_reports", "id", postReport.getId());
         });
     }
 
@@ -149,26 +142,26 @@ public class ReportSystemController {
      * @param status the new status to be set for the user report
      */
     public void adminChangeUserReportStatus(AdminAccount adminAccount, UserReport userReport, Report.Status status) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             adminAccount.changeReportStatus(userReport, status);
-            String sql = DatabaseController.generateUpdateStatement("post_reports", "status", status.name(), "id", userReport.getId());
-            DatabaseController.updateRecord(sql);
+            DatabaseController.update("user_reports", "status", status.name(), "id", userReport.getId());
+            reportSystem.updateReport(userReport);
         });
     }
 
     /**
      * Changes the status of a given PostReport by an AdminAccount and updates the database accordingly.
-     * This action is submitted to a thread pool for asynchronous processing.
+     * This action is submitted to the background executor for asynchronous processing.
      *
      * @param adminAccount The AdminAccount performing the status change.
      * @param postReport   The PostReport whose status is to be changed.
      * @param status       The new status to set for the PostReport.
      */
     public void adminChangePostReportStatus(AdminAccount adminAccount, PostReport postReport, Report.Status status) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             adminAccount.changeReportStatus(postReport, status);
-            String sql = DatabaseController.generateUpdateStatement("post_reports", "status", status.name(), "id", postReport.getId());
-            DatabaseController.updateRecord(sql);
+            DatabaseController.update("post_reports", "status", status.name(), "id", postReport.getId());
+            reportSystem.updateReport(postReport);
         });
     }
 
@@ -181,10 +174,10 @@ public class ReportSystemController {
      * @param userReport the user report that is being assigned
      */
     public void adminAssignUserReportTo(AdminAccount assignerAdmin, AdminAccount assignedAdmin, UserReport userReport) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             assignerAdmin.assignReportTo(assignedAdmin, userReport);
-            String sql = DatabaseController.generateUpdateStatement("user_reports", "adminId", assignedAdmin.getId(), "id", userReport.getId());
-            DatabaseController.updateRecord(sql);
+            DatabaseController.update("user_reports", "adminId", assignedAdmin.getId(), "id", userReport.getId());
+            reportSystem.updateReport(userReport);
         });
     }
 
@@ -196,10 +189,10 @@ public class ReportSystemController {
      * @param postReport the post report to be assigned
      */
     public void adminAssignPostReportTo(AdminAccount assignerAdmin, AdminAccount assignedAdmin, PostReport postReport) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             assignerAdmin.assignReportTo(assignedAdmin, postReport);
-            String sql = DatabaseController.generateUpdateStatement("post_reports", "adminId", assignedAdmin.getId(), "id", postReport.getId());
-            DatabaseController.updateRecord(sql);
+            DatabaseController.update("post_reports", "adminId", assignedAdmin.getId(), "id", postReport.getId());
+            reportSystem.updateReport(postReport);
         });
     }
 
@@ -211,10 +204,10 @@ public class ReportSystemController {
      * @param userReport the user report to be closed
      */
     public void adminCloseUserReport(AdminAccount adminAccount, UserReport userReport) {
-        threadPool.submit(() -> {
+        TaskExecutor.run(() -> {
             adminAccount.closeReport(userReport);
-            String sql = DatabaseController.generateUpdateStatement("user_reports", "status", Report.Status.CLOSED.name(), "id", userReport.getId());
-            DatabaseController.updateRecord(sql);
+            DatabaseController.update("user_reports", "status", Report.Status.CLOSED.name(), "id", userReport.getId());
+            reportSystem.updateReport(userReport);
         });
     }
 
@@ -226,11 +219,8 @@ public class ReportSystemController {
      *                   identify and update the correct record in the database.
      */
     public void closePostReport(PostReport postReport) {
-//        threadPool.submit(() -> {
-//            adminAccount.closeReport(postReport);
-            String sql = DatabaseController.generateUpdateStatement("post_reports", "status", Report.Status.CLOSED.name(), "id", postReport.getId());
-            DatabaseController.updateRecord(sql);
-//        });
+        DatabaseController.update("post_reports", "status", Report.Status.CLOSED.name(), "id", postReport.getId());
+        reportSystem.updateReport(postReport);
     }
 
     /**
@@ -239,8 +229,8 @@ public class ReportSystemController {
      * @param userReport the user report to be closed
      */
     public void closeUserReport(UserReport userReport) {
-        String sql = DatabaseController.generateUpdateStatement("user_reports", "status", Report.Status.CLOSED.name(), "id", userReport.getId());
-        DatabaseController.updateRecord(sql);
+        DatabaseController.update("user_reports", "status", Report.Status.CLOSED.name(), "id", userReport.getId());
+        reportSystem.updateReport(userReport);
     }
 
     /**
@@ -254,26 +244,29 @@ public class ReportSystemController {
      */
     public void deletePost(int reportedPostId) {
         Post post = UserSystem.getInstance().getPostById(reportedPostId);
-        UserSystem.getInstance().getAllPosts().remove(post);
-        String sql = DatabaseController.generateDeleteStatement("posts", "id", reportedPostId);
-        DatabaseController.deleteRecord(sql);
+        if (post != null) {
+            UserSystem.getInstance().removePost(post);
+        }
+        DatabaseController.delete("posts", "id", reportedPostId);
     }
 
     /**
      * Deletes a user account and all associated posts from the system and the database.
+     * Does nothing if the account has already been deleted, e.g. through another report.
      *
      * @param reportedUserId The unique identifier of the user to be deleted.
      */
     public void deleteUser(int reportedUserId) {
         UserAccount user = UserSystem.getInstance().getUserById(reportedUserId);
-        UserSystem.getInstance().getUserAccounts().remove(user);
-        String sql = DatabaseController.generateDeleteStatement("users", "id", reportedUserId);
-        DatabaseController.deleteRecord(sql);
+        if (user == null) {
+            return;
+        }
+        UserSystem.getInstance().removeUser(user);
+        DatabaseController.delete("users", "id", reportedUserId);
 
         for (Post post : UserSystem.getInstance().getPostsByUser(user)) {
-            UserSystem.getInstance().getAllPosts().remove(post);
-            String postSql = DatabaseController.generateDeleteStatement("posts", "id", post.getId());
-            DatabaseController.deleteRecord(postSql);
+            UserSystem.getInstance().removePost(post);
+            DatabaseController.delete("posts", "id", post.getId());
         }
     }
 }
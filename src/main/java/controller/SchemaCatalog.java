@@ -0,0 +1,111 @@
+package controller;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory copy of the column layout of every table in the database.
+ *
+ * The catalog is filled in one pass with {@code PRAGMA table_info} and then answers every
+ * column lookup without touching the database, until it is invalidated by a schema change.
+ */
+public class SchemaCatalog {
+    private final Map<String, List<Column>> tables = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    /**
+     * A column as reported by {@code PRAGMA table_info}.
+     *
+     * @param position the zero-based position of the column in the table
+     * @param name the column name
+     * @param type the declared type, e.g. INTEGER or TEXT
+     * @param notNull whether the column is declared NOT NULL
+     * @param defaultValue the declared default value, or null
+     * @param primaryKey the one-based position of the column in the primary key, or 0 if it is not part of it
+     */
+    public record Column(int position, String name, String type, boolean notNull, String defaultValue, int primaryKey) {}
+
+    /**
+     * Reads the columns of every user table through the given connection, replacing whatever
+     * the catalog held before.
+     *
+     * @param connection the connection to read the schema through
+     * @throws SQLException if the schema cannot be read
+     */
+    public synchronized void load(Connection connection) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'")) {
+            while (resultSet.next()) {
+                tableNames.add(resultSet.getString("name"));
+            }
+        }
+
+        tables.clear();
+        for (String tableName : tableNames) {
+            List<Column> columns = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("PRAGMA table_info(\"" + tableName.replace("\"", "\"\"") + "\")")) {
+                while (resultSet.next()) {
+                    columns.add(new Column(
+                            resultSet.getInt("cid"),
+                            resultSet.getString("name"),
+                            resultSet.getString("type"),
+                            resultSet.getInt("notnull") == 1,
+                            resultSet.getString("dflt_value"),
+                            resultSet.getInt("pk")));
+                }
+            }
+            tables.put(tableName, Collections.unmodifiableList(columns));
+        }
+        loaded = true;
+    }
+
+    /**
+     * Forgets every table so that the next lookup reloads the schema. Called whenever a table
+     * is altered or dropped.
+     */
+    public synchronized void invalidate() {
+        tables.clear();
+        loaded = false;
+    }
+
+    /**
+     * @return true if the catalog has been loaded since it was created or last invalidated
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the columns of a table, in declaration order.
+     *
+     * @param tableName the name of the table
+     * @return the columns of the table, or null if the catalog does not know the table
+     */
+    public List<Column> getColumns(String tableName) {
+        return tables.get(tableName);
+    }
+
+    /**
+     * Returns the column names of a table, in declaration order.
+     *
+     * @param tableName the name of the table
+     * @return the column names of the table, or null if the catalog does not know the table
+     */
+    public String[] getColumnNames(String tableName) {
+        List<Column> columns = tables.get(tableName);
+        if (columns == null) {
+            return null;
+        }
+        return columns.stream().map(Column::name).toArray(String[]::new);
+    }
+}
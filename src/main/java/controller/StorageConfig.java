@@ -0,0 +1,67 @@
+package controller;
+
+import org.sqlite.SQLiteConfig;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * SQLite settings applied to every connection opened by {@link DatabaseController}.
+ *
+ * The defaults put the database in WAL mode so that readers never wait for the writer,
+ * and relax fsyncs to {@code synchronous=NORMAL}, which is durable across application
+ * crashes and only risks the last transactions on power loss.
+ *
+ * @param journalMode the journal mode set by the writer connection, e.g. WAL or DELETE
+ * @param synchronous the synchronous level, e.g. NORMAL or FULL
+ * @param mmapSize the number of bytes of the database file to memory-map, 0 to disable
+ * @param cacheSize the page cache size, in pages if positive or in KiB if negative
+ * @param busyTimeoutMillis how long a connection retries when the database is locked
+ */
+public record StorageConfig(String journalMode, String synchronous, long mmapSize, int cacheSize, int busyTimeoutMillis) {
+
+    /**
+     * Builds the default configuration, which can be overridden with the {@code y.db.journalMode},
+     * {@code y.db.synchronous}, {@code y.db.mmapSize}, {@code y.db.cacheSize} and
+     * {@code y.db.busyTimeoutMillis} system properties.
+     *
+     * @return the default storage configuration
+     */
+    public static StorageConfig defaults() {
+        return new StorageConfig(
+                System.getProperty("y.db.journalMode", "WAL"),
+                System.getProperty("y.db.synchronous", "NORMAL"),
+                Long.getLong("y.db.mmapSize", 256L * 1024 * 1024),
+                Integer.getInteger("y.db.cacheSize", -16 * 1024),
+                Integer.getInteger("y.db.busyTimeoutMillis", 5_000));
+    }
+
+    /**
+     * @return the connection properties of the single writer connection
+     */
+    public Properties writerProperties() {
+        SQLiteConfig config = baseConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(journalMode.toUpperCase(Locale.ROOT)));
+        return config.toProperties();
+    }
+
+    /**
+     * Readers open the file read-only and inherit the journal mode the writer set on it.
+     *
+     * @return the connection properties of the pooled reader connections
+     */
+    public Properties readerProperties() {
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+        return config.toProperties();
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous.toUpperCase(Locale.ROOT)));
+        config.setCacheSize(cacheSize);
+        config.setBusyTimeout(busyTimeoutMillis);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        return config;
+    }
+}
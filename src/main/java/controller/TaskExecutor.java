@@ -0,0 +1,121 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking work of the user interface, such as database I/O, away from the JavaFX
+ * Application Thread, so that the interface stays responsive while SQLite commits.
+ *
+ * Every task runs on its own virtual thread of a shared {@link BackgroundExecutor}, which bounds
+ * how many of them reach the database at once and reports the ones that fail, and is returned
+ * as a CompletableFuture. Continuations that touch the interface must run on {@link #FX}, which
+ * hands them back to the JavaFX Application Thread with {@link Platform#runLater(Runnable)}.
+ * The system controllers run their own background work through it as well.
+ */
+public final class TaskExecutor {
+    /**
+     * Runs the continuations of a task on the JavaFX Application Thread.
+     */
+    public static final Executor FX = Platform::runLater;
+
+    /**
+     * Runs each blocking task on a new virtual thread.
+     */
+    private static final BackgroundExecutor IO = new BackgroundExecutor("y-io-", BackgroundExecutor.Config.defaults());
+
+    /**
+     * The TaskExecutor only has static members.
+     */
+    private TaskExecutor() {
+    }
+
+    /**
+     * Runs a task that returns a value on a virtual thread.
+     *
+     * @param task the blocking task to run
+     * @return a future completed with the result of the task, or with its failure
+     * @param <T> the type of the result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return IO.submit(task);
+    }
+
+    /**
+     * Runs a task on a virtual thread.
+     *
+     * @param task the blocking task to run
+     * @return a future completed once the task has run
+     */
+    public static CompletableFuture<Void> run(Runnable task) {
+        return IO.submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task that returns a value on a virtual thread, and shows the given control as
+     * pending until it completes: the control is disabled now and enabled again on the JavaFX
+     * Application Thread once the task has finished, whether it succeeded or not.
+     * Must be called on the JavaFX Application Thread.
+     *
+     * @param pending the control that started the task, e.g. a button
+     * @param task the blocking task to run
+     * @return a future completed with the result of the task, once the control has been enabled again
+     * @param <T> the type of the result
+     */
+    public static <T> CompletableFuture<T> supply(Node pending, Supplier<T> task) {
+        pending.setDisable(true);
+        return supply(task).whenCompleteAsync((result, e) -> pending.setDisable(false), FX);
+    }
+
+    /**
+     * Runs a task on a virtual thread, and shows the given control as pending until it
+     * completes. Must be called on the JavaFX Application Thread.
+     *
+     * @param pending the control that started the task, e.g. a button
+     * @param task the blocking task to run
+     * @return a future completed once the task has run and the control has been enabled again
+     */
+    public static CompletableFuture<Void> run(Node pending, Runnable task) {
+        return supply(pending, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return a snapshot of the counters of the background executor
+     */
+    public static BackgroundExecutor.Metrics getMetrics() {
+        return IO.getMetrics();
+    }
+
+    /**
+     * Stops accepting tasks and waits for the ones already submitted. Called when the
+     * application exits, before the database is closed.
+     */
+    public static void shutdown() {
+        IO.close();
+    }
+
+    /**
+     * Logs an interface action that failed, including a failure of its continuation on the
+     * JavaFX Application Thread.
+     *
+     * @param e the failure
+     * @return nothing, so it can be used with {@link CompletableFuture#exceptionally}
+     * @param <T> the type of the result of the task
+     */
+    public static <T> T logFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        System.err.println("Interface action failed: " + cause.getMessage());
+        return null;
+    }
+}
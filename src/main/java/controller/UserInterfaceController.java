@@ -8,18 +8,25 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import javafx.application.Platform;
+import model.FeedEngine;
 import model.Post;
 import model.UserAccount;
 import model.UserSystem;
+import model.UsernameIndex;
 import view.LoginInterface;
+import view.PostListCell;
+import view.PostViewModel;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static javafx.scene.layout.Priority.ALWAYS;
 
@@ -60,17 +67,20 @@ public class UserInterfaceController {
     @FXML
     private TextField searchTextField;
 
+    @FXML
+    private ChoiceBox<String> searchModeChoiceBox;
+
     @FXML
     private Label welcomeLabel;
 
     @FXML
-    private VBox feedVBox;
+    private ListView<PostViewModel> feedListView;
 
     @FXML
     private VBox searchVBox;
 
     @FXML
-    private VBox profileVBox;
+    private ListView<PostViewModel> profileListView;
 
     /**
      * Represents the locale settings used by the UserInterfaceController to
@@ -82,6 +92,37 @@ public class UserInterfaceController {
      */
     private Locale locale;
 
+    /**
+     * The position after the last post shown in the feed, or null once the feed has no more posts.
+     * Further pages are only fetched when the user scrolls near the end of the feed.
+     */
+    private FeedEngine.Cursor feedCursor;
+
+    // Set while the next page of the feed is being fetched
+    private boolean feedPagePending;
+
+    /**
+     * The view-models of the posts shown, by post ID. A post shown in both the feed and the
+     * profile tab shares one view-model, so a like updates both cells at once.
+     */
+    private final Map<Integer, PostViewModel> postViewModels = new HashMap<>();
+
+    /**
+     * A page of posts together with their authors, looked up on the background thread that
+     * fetched the page so that showing it never reads the database.
+     *
+     * @param page the page of posts
+     * @param authors the authors of the posts, by user ID
+     * @param <T> the type of the page
+     */
+    private record AuthoredPage<T>(T page, Map<Integer, UserAccount> authors) {}
+
+    /**
+     * Runs the searches of the search tab as the user types, rendering only the results of the
+     * latest input.
+     */
+    private final LiveSearch liveSearch = new LiveSearch(LiveSearch.Config.defaults(), TaskExecutor.FX);
+
     /**
      * Updates the text labels and buttons in the user interface to reflect the current locale settings.
      * This method retrieves the appropriate localized strings from a ResourceBundle and sets them on
@@ -94,6 +135,9 @@ public class UserInterfaceController {
         searchProfileButton.setText(bundle.getString("search.button"));
         searchLabel.setText(bundle.getString("search.label"));
         searchButton.setText(bundle.getString("search.button"));
+        int searchMode = Math.max(0, searchModeChoiceBox.getSelectionModel().getSelectedIndex());
+        searchModeChoiceBox.getItems().setAll(bundle.getString("search.users"), bundle.getString("search.posts"));
+        searchModeChoiceBox.getSelectionModel().select(searchMode);
         profileButton.setText(bundle.getString("profile.button"));
         postsLabel.setText(bundle.getString("myPosts.label"));
         postButton.setText(bundle.getString("post.button"));
@@ -116,59 +160,120 @@ public class UserInterfaceController {
     }
 
     /**
-     * Loads and displays the user's feed with posts from all users.
-     * This method clears the existing feed display by removing all children
-     * nodes that are instances of VBox from feedVBox. It retrieves all posts
-     * from the UserSystem's singleton instance and processes each post to
-     * extract relevant information such as the post's date, and the username of
-     * the user who published the post. These details are then formatted into
-     * a header string. Finally, each post is added to the feed display by
-     * calling addPostToFeed, which integrates the constructed header, the
-     * content of the post, and the post object itself.
+     * Loads and displays the user's home feed: the newest posts of the accounts they follow
+     * and their own posts. This method clears the feed list, then shows the first page of the feed,
+     * with a progress indicator in its place until the page has been fetched.
+     * Later pages are appended by requestNextFeedPage once the last post of the list is shown.
      */
     private void loadFeed() {
-        feedVBox.getChildren().removeIf(node -> node instanceof VBox);
+        feedListView.getItems().clear();
+        feedListView.setPlaceholder(new ProgressIndicator());
+        feedCursor = null;
+        appendFeedPage();
+    }
 
-        UserSystem.getInstance().getAllPosts().forEach(post -> {
-            // Get the current date and time
-            Date postDate = post.getDatePosted();
-            String username = UserSystem.getInstance().getUserById(post.getUserId()).getUsername();
+    /**
+     * Fetches the next page of the home feed, if there is one and it is not already being
+     * fetched. Called by the cell showing the last post of the feed; the page is appended
+     * once it is back, after the current layout pass.
+     */
+    private void requestNextFeedPage() {
+        if (feedCursor != null && !feedPagePending) {
+            appendFeedPage();
+        }
+    }
 
-            String header = username + " - " + getFormattedDateTime(postDate);
-            addPostToFeed(header, post.getText(), post);
-        });
+    /**
+     * Retrieves the page of the feed following feedCursor from the FeedEngine on a background
+     * thread, since it may read the database, along with the authors of its posts, and adds
+     * its posts to the end of the feed list.
+     */
+    private void appendFeedPage() {
+        feedPagePending = true;
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        FeedEngine.Cursor after = feedCursor;
+
+        TaskExecutor.supply(() -> {
+                    FeedEngine.Page page = UserSystemController.getInstance().getHomeFeed(currentUser, after, FeedEngine.DEFAULT_PAGE_SIZE);
+                    return new AuthoredPage<>(page, UserSystem.getInstance().getAuthors(page.posts()));
+                })
+                .whenCompleteAsync((authored, e) -> {
+                    feedPagePending = false;
+                    feedListView.setPlaceholder(null);
+                    if (e != null) {
+                        TaskExecutor.logFailure(e);
+                        return;
+                    }
+                    FeedEngine.Page page = authored.page();
+                    page.posts().forEach(post -> feedListView.getItems().add(viewModel(post, authored.authors().get(post.getUserId()))));
+                    feedCursor = page.next();
+                }, TaskExecutor.FX);
+    }
+
+    /**
+     * Returns the view-model of a post, creating it the first time the post is shown.
+     *
+     * @param post the post to display
+     * @param author the author of the post, or null if the account no longer exists
+     * @return the view-model shared by every list showing the post
+     */
+    private PostViewModel viewModel(Post post, UserAccount author) {
+        return postViewModels.computeIfAbsent(post.getId(), id -> new PostViewModel(post, author));
+    }
+
+    /**
+     * Builds the header of a post in the feed from the username of its author and its date.
+     *
+     * @param item the post shown
+     * @return the header text
+     */
+    private String feedHeader(PostViewModel item) {
+        Post post = item.getPost();
+        UserAccount author = item.getAuthor();
+        String username = author != null ? author.getUsername() : "";
+        return username + " - " + getFormattedDateTime(post.getDatePosted());
+    }
+
+    /**
+     * Builds the header of a post in the profile tab from the name of the current user and its date.
+     *
+     * @param item the post shown
+     * @return the header text
+     */
+    private String profileHeader(PostViewModel item) {
+        return UserSystem.getInstance().getCurrentUser().getName() + " - " + getFormattedDateTime(item.getPost().getDatePosted());
     }
 
     /**
      * Clears the searchVBox of all nodes except the first one, then populates it
-     * with user profiles by iterating through each user account in the UserSystem.
-     * Each user account is passed to the addProfilesToSearch method to be
-     * displayed in the search interface.
+     * with the first user profiles in alphabetical order of their usernames, at most
+     * UsernameIndex.DEFAULT_LIMIT of them. Only those accounts are read, see
+     * UserSystem.getFirstUsers. The accounts are fetched on a background thread through the liveSearch,
+     * so that a newer search replaces them, and each of them is passed to the
+     * addProfilesToSearch method to be displayed in the search interface.
      */
     private void loadSearch() {
-        searchVBox.getChildren().removeIf(node -> searchVBox.getChildren().indexOf(node) > 0);
-
-        UserSystem.getInstance().getUserAccounts().forEach(this::addProfilesToSearch);
+        clearSearchResults();
+        liveSearch.submitNow(
+                () -> UserSystem.getInstance().getFirstUsers(UsernameIndex.DEFAULT_LIMIT),
+                users -> {
+                    clearSearchResults();
+                    users.forEach(this::addProfilesToSearch);
+                });
     }
 
     /**
-     * Loads the current user's profile by clearing existing posts from the profile view
-     * and adding the user's posts from the system to the profile VBox.
-     * The method first removes any nodes of type VBox from the profileVBox, ensuring
-     * that the view is cleared before new posts are loaded.
-     * It then retrieves the current user from the UserSystem singleton instance
-     * and gets all posts associated with this user.
-     * For each post, the method creates a header using the user's name and the formatted
-     * date of the post, and then adds this information along with the post's text
-     * to the profile view via the addPostToProfile helper method.
+     * Loads the current user's profile by replacing the items of the profile list with
+     * the user's posts, newest first. The posts are fetched on a background thread, since
+     * they may be read from the database. The headers are built by profileHeader as the
+     * cells of the list show each post.
      */
     private void loadProfile() {
-        profileVBox.getChildren().removeIf(node -> node instanceof VBox);
-
-        UserSystem.getInstance().getPostsByUser(UserSystem.getInstance().getCurrentUser()).forEach(post -> {
-            String header = UserSystem.getInstance().getCurrentUser().getName() + " - " + getFormattedDateTime(post.getDatePosted());
-            addPostToProfile(header, post.getText(), post);
-        });
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        TaskExecutor.supply(() -> UserSystem.getInstance().getPostsByUser(currentUser))
+                .thenAcceptAsync(posts -> profileListView.getItems().setAll(posts.stream().map(post -> viewModel(post, currentUser)).toList()),
+                        TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
     }
 
     /**
@@ -207,8 +312,10 @@ public class UserInterfaceController {
      * This method is automatically called when the FXML file is loaded.
      * The following operations are performed during initialization:
      * 1. Sets the locale for the application if it has not been previously set.
-     * 2. Loads the feed content into the user interface.
-     * 3. Loads the search functionalities and profiles.
+     * 2. Sets up the feed and profile lists with recycled post cells, and loads the first page
+     *    of the feed. Further pages are fetched as the user scrolls to the end of it.
+     * 3. Loads the search functionalities and profiles, and searches again whenever the search
+     *    text or mode changes.
      * 4. Loads the user's profile details and posts.
      * 5. Updates all UI labels to match the current locale settings.
      * 6. Hides certain tabs based on user permissions or initial settings.
@@ -218,11 +325,21 @@ public class UserInterfaceController {
         if (locale == null) {
             locale = LanguageManager.getInstance().getCurrentLocale();
         }
+        feedListView.setCellFactory(list -> {
+            PostListCell cell = new PostListCell(this::feedHeader, this::handleLikeButton, "⚠", this::handleReportButton);
+            cell.setOnLastItemShown(this::requestNextFeedPage);
+            return cell;
+        });
+        profileListView.setCellFactory(list ->
+                new PostListCell(this::profileHeader, this::handleLikeButton, "🗑", this::handleRemovePost));
         loadFeed();
         loadSearch();
         loadProfile();
         updateLabels();
         hideTabs();
+        searchTextField.textProperty().addListener((observable, oldText, newText) -> search(false));
+        searchModeChoiceBox.getSelectionModel().selectedIndexProperty()
+                .addListener((observable, oldMode, newMode) -> search(false));
     }
 
     /**
@@ -234,8 +351,10 @@ public class UserInterfaceController {
      *    to accommodate locale-specific language settings.
      * 2. Replaces the default input field of the dialog with a `TextArea` for a better user experience.
      * 3. Waits for the user to submit the content, and if the content is non-empty, uses
-     *    `UserSystemController` to send the post content for the current user to the backend.
-     * 4. Refreshes the user's feed and profile view to reflect the newly posted content.
+     *    `UserSystemController` to send the post content for the current user to the backend,
+     *    on a background thread during which the post button is disabled.
+     * 4. Inserts the new post at the top of the feed and the profile tab, leaving the posts
+     *    already shown untouched.
      */
     @FXML
     void handlePostButton() {
@@ -253,76 +372,27 @@ public class UserInterfaceController {
             String postContent = textArea.getText();
             if (!postContent.trim().isEmpty()) {
                 var currentUser = UserSystem.getInstance().getCurrentUser();
-                UserSystemController.getInstance().userPost(currentUser, postContent); // Update the backend
-
-                loadFeed();
-                loadProfile();
+                TaskExecutor.supply(postButton, () -> UserSystemController.getInstance().userPost(currentUser, postContent)) // Update the backend
+                        .thenAcceptAsync(post -> {
+                            PostViewModel item = viewModel(post, currentUser);
+                            feedListView.getItems().addFirst(item);
+                            profileListView.getItems().addFirst(item);
+                        }, TaskExecutor.FX)
+                        .exceptionally(TaskExecutor::logFailure);
             }
         });
     }
 
-    /**
-     * Adds a post to the feed display. This method creates a new visual representation of a post
-     * in a VBox and adds it to the user interface. The post includes a header, content, and a set of
-     * reaction controls such as like and report buttons.
-     *
-     * @param headerText The text to be displayed in the header of the post. Typically, includes the
-     *                   username and the date/time the post was made.
-     * @param postContent The content of the post to be displayed.
-     * @param post The Post object containing data about likes and other metadata.
-     */
-    private void addPostToFeed(String headerText, String postContent, Post post) {
-        // Create a VBox for the post
-        VBox postBox = new VBox();
-        postBox.setStyle("-fx-border-color: black; -fx-border-width: 2; -fx-padding: 10;");
-        postBox.setSpacing(5); // Optional: Add spacing between elements
-
-        // Create the header Label
-        Label headerLabel = new Label(headerText);
-        headerLabel.setFont(new Font("System Bold", 18));
-        headerLabel.setPrefSize(250, 18);
-
-        // Create the content Label
-        Label contentLabel = new Label(postContent);
-        contentLabel.setWrapText(true);
-        contentLabel.setPrefSize(1123, 150);
-
-        // Create the HBox for reactions
-        HBox reactionBox = new HBox();
-        reactionBox.setAlignment(Pos.CENTER_RIGHT);
-        reactionBox.setSpacing(5);
-        reactionBox.setPrefSize(1134, 35);
-
-        // Reaction elements
-        Label counterLabel = new Label("0");
-        counterLabel.setStyle("-fx-padding: 10;");
-        Button likeButton = new Button("👍");
-        likeButton.setOnAction(event -> handleLikeButton(counterLabel, post));
-        Button reportButton = new Button("⚠");
-        reportButton.setOnAction(event -> handleReportButton(post));
-
-        // Update counterLabel value
-        counterLabel.setText("" + post.getLikes());
-
-        // Add reaction elements to HBox
-        reactionBox.getChildren().addAll(counterLabel, likeButton, reportButton);
-
-        // Add all elements to the post VBox
-        postBox.getChildren().addAll(headerLabel, contentLabel, reactionBox);
-
-        // Add the post VBox to the feed container
-        feedVBox.getChildren().add(1, postBox); // Add at the top of the feed
-    }
-
     /**
      * Handles the action of reporting a post by displaying a dialog
      * for the user to specify a reason. If a valid reason is provided,
-     * the post is reported through the UserSystemController, and the
-     * feed view is updated.
+     * the post is reported through the UserSystemController on a background
+     * thread, since it may load the reports. Reporting does not change how
+     * the post is displayed, so the feed is left as is.
      *
-     * @param post the post to be reported
+     * @param item the post to be reported
      */
-    private void handleReportButton(Post post) {
+    private void handleReportButton(PostViewModel item) {
         TextInputDialog dialog = new TextInputDialog();
         ResourceBundle bundle = ResourceBundle.getBundle("lang.User", locale);
         dialog.setTitle(bundle.getString("postReport.title"));
@@ -335,18 +405,17 @@ public class UserInterfaceController {
         dialog.showAndWait().ifPresent(reason -> {
             String reportReason = reasonTextArea.getText();
             if (!reportReason.trim().isEmpty()) {
-                UserSystemController.getInstance().reportPost(UserSystem.getInstance().getCurrentUser(), post, reportReason);
-                loadFeed();
+                UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+                TaskExecutor.run(() -> UserSystemController.getInstance().reportPost(currentUser, item.getPost(), reportReason))
+                        .exceptionally(TaskExecutor::logFailure);
             }
         });
-
-        // Refresh the feed view to reflect the changes
-        loadFeed();
     }
 
     /**
      * Handles the report button action for reporting a user account. It presents a dialog to input
-     * the reason for reporting the user and then processes the report if a valid reason is provided.
+     * the reason for reporting the user and then processes the report on a background thread if a
+     * valid reason is provided.
      *
      * @param user the user account that is being reported
      */
@@ -363,71 +432,14 @@ public class UserInterfaceController {
         dialog.showAndWait().ifPresent(reason -> {
             String reportReason = reasonTextArea.getText();
             if (!reportReason.trim().isEmpty()) {
-                UserSystemController.getInstance().reportUser(UserSystem.getInstance().getCurrentUser(), user, reportReason);
-                loadSearch();
+                UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+                TaskExecutor.run(() -> UserSystemController.getInstance().reportUser(currentUser, user, reportReason))
+                        .exceptionally(TaskExecutor::logFailure);
             }
         });
-
-        // Refresh the search view to reflect the changes
-        loadSearch();
     }
 
 
-    /**
-     * Adds a post to the user's profile view by creating a visual representation of the post
-     * using JavaFX components such as VBox, Label, and HBox. The method sets up the layout
-     * and interactions for the post's display, including headers, content, and reaction buttons.
-     *
-     * @param headerText   the text to be displayed as the header of the post, usually containing
-     *                     the username and the post date.
-     * @param postContent  the main content text of the post.
-     * @param post         the Post object that contains details and functionality related to the
-     *                     post such as like count and user interactions.
-     */
-    // Helper method to add a post to the profileVBox
-    private void addPostToProfile(String headerText, String postContent, Post post) {
-        // Create a VBox for the post
-        VBox postBox = new VBox();
-        postBox.setStyle("-fx-border-color: black; -fx-border-width: 2; -fx-padding: 10;");
-        postBox.setSpacing(5);
-
-        // Create the header Label
-        Label headerLabel = new Label(headerText);
-        headerLabel.setFont(new Font("System Bold", 18));
-        headerLabel.setPrefSize(250, 18);
-
-        // Create the content Label
-        Label contentLabel = new Label(postContent);
-        contentLabel.setWrapText(true);
-        contentLabel.setPrefSize(1123, 150);
-
-        // Create the HBox for reactions
-        HBox reactionBox = new HBox();
-        reactionBox.setAlignment(Pos.CENTER_RIGHT);
-        reactionBox.setSpacing(5);
-        reactionBox.setPrefSize(1134, 35);
-
-        // Reaction elements
-        Label counterLabel = new Label("0");
-        counterLabel.setStyle("-fx-padding: 10;");
-        Button likeButton = new Button("👍");
-        likeButton.setOnAction(event -> handleLikeButton(counterLabel, post));
-        Button removeButton = new Button("🗑");
-        removeButton.setOnAction(event -> handleRemovePost(post));
-
-        // Update counterLabel value
-        counterLabel.setText("" + post.getLikes());
-
-        // Add reaction elements to HBox
-        reactionBox.getChildren().addAll(counterLabel, likeButton, removeButton);
-
-        // Add all elements to the post VBox
-        postBox.getChildren().addAll(headerLabel, contentLabel, reactionBox);
-
-        // Add the post VBox to the profile container
-        profileVBox.getChildren().add(1, postBox);
-    }
-
     /**
      * Adds a user's profile to the search results displayed in the user interface.
      * This method creates and configures GUI components to represent the user's profile,
@@ -467,7 +479,8 @@ public class UserInterfaceController {
      * Opens a new window displaying the profile of the specified user.
      * The window contains the user's username, follower count, a follow/unfollow button,
      * and a list of the user's posts. The posts are displayed with a header containing
-     * the date posted and the content of the post in a styled format.
+     * the date posted and the content of the post in a styled format, and are added once
+     * they have been fetched on a background thread.
      * The follow/unfollow button updates in real-time to reflect the current following status.
      *
      * @param user the user account whose profile is to be displayed
@@ -498,10 +511,14 @@ public class UserInterfaceController {
         Label followersLabel = new Label(bundle.getString("followers") + ": " + user.getFollowerCount());
         followersLabel.setStyle("-fx-font-size: 16px;");
 
-        // Follow button
-        Button followButton = new Button(followOrUnfollow(user));
+        // Follow button, disabled until the followers of the user are known
+        Button followButton = new Button(followOrUnfollow(false));
         followButton.setPrefWidth(80);
         followButton.setOnAction(event -> handleFollowButton(followersLabel, followButton, user));
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        TaskExecutor.supply(followButton, () -> UserSystemController.getInstance().isFollowing(currentUser, user))
+                .thenAcceptAsync(following -> followButton.setText(followOrUnfollow(following)), TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         headerLayout.getChildren().addAll(usernameLabel, followButton, spacer, followersLabel);
 
@@ -511,19 +528,21 @@ public class UserInterfaceController {
 
         profileVBox.getChildren().addAll(headerLayout, postTitle);
 
-        // Fetch the user's posts and add them to the VBox
-        UserSystem.getInstance().getPostsByUser(user).forEach(post -> {
-            String header = user.getUsername() + " - " + getFormattedDateTime(post.getDatePosted());
-            Label postHeader = new Label(header);
-            postHeader.setFont(new Font(16.0));
+        // Fetch the user's posts on a background thread and add them to the VBox
+        TaskExecutor.supply(() -> UserSystem.getInstance().getPostsByUser(user))
+                .thenAcceptAsync(posts -> posts.forEach(post -> {
+                    String header = user.getUsername() + " - " + getFormattedDateTime(post.getDatePosted());
+                    Label postHeader = new Label(header);
+                    postHeader.setFont(new Font(16.0));
 
-            Label postContent = new Label(post.getText());
-            postContent.setWrapText(true);
+                    Label postContent = new Label(post.getText());
+                    postContent.setWrapText(true);
 
-            VBox postBox = new VBox(5, postHeader, postContent);
-            postBox.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-padding: 5;");
-            profileVBox.getChildren().add(postBox);
-        });
+                    VBox postBox = new VBox(5, postHeader, postContent);
+                    postBox.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-padding: 5;");
+                    profileVBox.getChildren().add(postBox);
+                }), TaskExecutor.FX)
+                .exceptionally(TaskExecutor::logFailure);
 
         // Set the VBox in a Scene
         Scene profileScene = new Scene(profileVBox, 400, 600);
@@ -565,41 +584,153 @@ public class UserInterfaceController {
 
     /**
      * Handles the event triggered by clicking the "Search Profile" button.
-     * This method searches for user profiles whose usernames contain the text
-     * entered in the search text field, and displays the matching profiles.
-     *
-     * It first clears any existing search results by removing HBox nodes from
-     * the searchVBox. Then, it iterates through all user accounts retrieved
-     * from the UserSystem singleton instance. For each user, if the username
-     * contains the text entered the searchTextField, the user profile is
-     * added to the search results using the private method addProfilesToSearch.
+     * This method searches for what the search text field holds right away, without waiting
+     * for the user to stop typing. See search.
      */
     @FXML
     void handleSearchProfileButton() {
-        searchVBox.getChildren().removeIf(node -> node instanceof HBox);
+        search(true);
+    }
 
-        UserSystem.getInstance().getUserAccounts().forEach(user -> {
-            if (user.getUsername().contains(searchTextField.getText())) {
-                addProfilesToSearch(user);
-            }
+    /**
+     * Searches for what the search text field holds, in the mode chosen next to it:
+     * user profiles whose usernames start with or contain the text, or posts whose content has its words.
+     *
+     * The search runs on a background thread through the liveSearch, since it may search the
+     * database. Unless it is to start now, it waits until the user has stopped typing, and only
+     * the results of the latest text are shown: they replace the current results, keeping only
+     * the search bar of the searchVBox. In user mode, each user account found is added to the
+     * results using the private method addProfilesToSearch. In post mode, the first page of
+     * matching posts is shown by showPostSearchPage. An empty text shows the first profiles again, see loadSearch.
+     *
+     * @param now true to search right away, false to wait until the text stops changing
+     */
+    private void search(boolean now) {
+        String text = searchTextField.getText();
+        if (text.isBlank()) {
+            loadSearch();
+            return;
+        }
+        if (searchModeChoiceBox.getSelectionModel().getSelectedIndex() == 1) {
+            submitSearch(now, () -> searchPostPage(text, 0), page -> {
+                clearSearchResults();
+                showPostSearchPage(text, page);
+            });
+            return;
+        }
+        submitSearch(now, () -> UserSystem.getInstance().searchUsers(text), users -> {
+            clearSearchResults();
+            users.forEach(this::addProfilesToSearch);
         });
     }
 
+    /**
+     * Submits a search to the liveSearch, to start right away or once the text stops changing.
+     *
+     * @param now true to start the search right away
+     * @param search the blocking search
+     * @param render shows the results of the search on the JavaFX Application Thread
+     * @param <T> the type of the results
+     */
+    private <T> void submitSearch(boolean now, Supplier<T> search, Consumer<T> render) {
+        if (now) {
+            liveSearch.submitNow(search, render);
+        } else {
+            liveSearch.submit(search, render);
+        }
+    }
+
+    /**
+     * Removes the search results, keeping only the search bar of the searchVBox.
+     */
+    private void clearSearchResults() {
+        searchVBox.getChildren().remove(1, searchVBox.getChildren().size());
+    }
+
+    /**
+     * Searches a page of posts matching the given text, best match first, and looks up the
+     * authors of the posts as well. Blocking, so it runs on a background thread.
+     *
+     * @param text the words to search for
+     * @param offset the offset of the page, 0 for the first one
+     * @return the page of posts found, with their authors
+     */
+    private AuthoredPage<UserSystem.SearchPage> searchPostPage(String text, int offset) {
+        UserSystem.SearchPage page = UserSystem.getInstance().searchPosts(text, offset, FeedEngine.DEFAULT_PAGE_SIZE);
+        return new AuthoredPage<>(page, UserSystem.getInstance().getAuthors(page.posts()));
+    }
+
+    /**
+     * Adds a page of posts to the end of the search results. If there are more results, a
+     * button at the end of the results fetches the next page, unless the search text has
+     * changed in the meantime.
+     *
+     * @param text the words searched for
+     * @param authored the page of posts found, with their authors
+     */
+    private void showPostSearchPage(String text, AuthoredPage<UserSystem.SearchPage> authored) {
+        UserSystem.SearchPage page = authored.page();
+        page.posts().forEach(post -> addPostToSearch(post, authored.authors().get(post.getUserId())));
+        if (page.hasMore()) {
+            Button moreButton = new Button(ResourceBundle.getBundle("lang.User", locale).getString("search.more"));
+            moreButton.setOnAction(event -> {
+                searchVBox.getChildren().remove(moreButton);
+                liveSearch.submitNow(() -> searchPostPage(text, page.nextOffset()), next -> showPostSearchPage(text, next));
+            });
+            searchVBox.getChildren().add(moreButton);
+        }
+    }
+
+    /**
+     * Adds a post to the search results, with the username of its author and its date above
+     * its content, styled with the classes of the posts of the feed. Clicking the header opens
+     * the profile of the author.
+     *
+     * @param post the post found
+     * @param author the author of the post, or null if the account no longer exists
+     */
+    private void addPostToSearch(Post post, UserAccount author) {
+        Label postHeader = new Label((author != null ? author.getUsername() : "") + " - " + getFormattedDateTime(post.getDatePosted()));
+        postHeader.getStyleClass().add("post-header");
+        if (author != null) {
+            postHeader.setOnMouseClicked(event -> openUserProfileWindow(author));
+        }
+
+        Label postContent = new Label(post.getText());
+        postContent.getStyleClass().add("post-content");
+        postContent.setWrapText(true);
+
+        VBox postBox = new VBox(postHeader, postContent);
+        postBox.getStyleClass().add("post-box");
+        postBox.setPrefWidth(1150.0);
+        searchVBox.getChildren().add(postBox);
+    }
+
     /**
      * Handles the removal of a specified post. This method removes the post,
-     * updates the backend system through the UserSystemController, and refreshes
-     * the profile and feed views to reflect the changes.
+     * updates the backend system through the UserSystemController on a background
+     * thread, and then removes the post from the profile and feed lists. The buttons
+     * of the post are disabled until the removal is done.
      *
-     * @param post the Post object to be removed
+     * @param item the post to be removed
      */
     // Method to handle removing a post
-    private void handleRemovePost(Post post) {
-        // Logic to remove a post (e.g., from the backend and update the UI)
-        UserSystemController.getInstance().userRemovePost(UserSystem.getInstance().getCurrentUser(), post);
+    private void handleRemovePost(PostViewModel item) {
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        item.setPending(true);
 
-        // Refresh the profile view to reflect the changes
-        loadProfile();
-        loadFeed();
+        // Logic to remove a post (e.g., from the backend and update the UI)
+        TaskExecutor.run(() -> UserSystemController.getInstance().userRemovePost(currentUser, item.getPost()))
+                .whenCompleteAsync((result, e) -> {
+                    item.setPending(false);
+                    if (e != null) {
+                        TaskExecutor.logFailure(e);
+                        return;
+                    }
+                    profileListView.getItems().remove(item);
+                    feedListView.getItems().remove(item);
+                    postViewModels.remove(item.getPost().getId());
+                }, TaskExecutor.FX);
     }
 
     /**
@@ -628,29 +759,42 @@ public class UserInterfaceController {
 
     /**
      * Handles the action of clicking the like button on a post. This method toggles the like state
-     * of the current user on the specified post, either adding or removing the user's like. It
-     * updates the post's like counter label to reflect the current number of likes.
+     * of the current user on the specified post, either adding or removing the user's like. Only
+     * the like counter of the post is updated: right away, and again with the committed count.
+     * Whether the user has liked the post is checked on a background thread, since the likes of
+     * the post may be read from the database. The buttons of the post stay disabled until the
+     * like has been committed.
      *
-     * @param counterLabel the label displaying the number of likes on the post
-     * @param post the post being liked or unliked by the current user
+     * @param item the post being liked or unliked by the current user
      */
     @FXML
-    private void handleLikeButton(Label counterLabel, Post post) {
-        // Check if current user has liked already to then either like or dislike the post
-        if (!post.getLikedByUserIds().contains(UserSystem.getInstance().getCurrentUser().getId())) {
-            UserSystemController.getInstance().userLikePost(UserSystem.getInstance().getCurrentUser().getId(), post);
-        } else if (post.getLikedByUserIds().contains(UserSystem.getInstance().getCurrentUser().getId())){
-            UserSystemController.getInstance().userUnlikePost(UserSystem.getInstance().getCurrentUser(), post);
-        }
-
-        // Refresh to load changes
-        Platform.runLater(() -> counterLabel.setText("" + post.getLikes()));
-        loadFeed();
+    private void handleLikeButton(PostViewModel item) {
+        Post post = item.getPost();
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        item.setPending(true);
+        // Check if current user has liked already to then either like or dislike the post, on a
+        // background thread since the likes of the post may have to be read from the database
+        TaskExecutor.supply(() -> UserSystemController.getInstance().hasLiked(currentUser, post)
+                        ? UserSystemController.getInstance().userUnlikePost(currentUser, post)
+                        : UserSystemController.getInstance().userLikePost(currentUser.getId(), post))
+                .thenComposeAsync(committed -> {
+                    item.refresh();
+                    return committed;
+                }, TaskExecutor.FX)
+                .whenCompleteAsync((result, e) -> {
+                    item.setPending(false);
+                    item.refresh();
+                    if (e != null) {
+                        TaskExecutor.logFailure(e);
+                    }
+                }, TaskExecutor.FX);
     }
 
     /**
      * Handles the action of following or unfollowing a user when the follow button is clicked.
      * Adjusts the follow button text and updates the followers count displayed on the label.
+     * The follow runs on a background thread, since it may load the followers of the user, and
+     * the follow button is disabled until it is done.
      *
      * @param followersLabel the label displaying the number of followers, which will be updated after the action
      * @param followButton the button that initiates the follow/unfollow action and whose text will be updated
@@ -658,32 +802,32 @@ public class UserInterfaceController {
      */
     @FXML
     private void handleFollowButton(Label followersLabel, Button followButton, UserAccount followed) {
-        if (!followed.getFollowerids().contains(UserSystem.getInstance().getCurrentUser().getId())) {
-            UserSystemController.getInstance().userFollowUser(UserSystem.getInstance().getCurrentUser(), followed);
-        } else if (followed.getFollowerids().contains(UserSystem.getInstance().getCurrentUser().getId())) {
-            UserSystemController.getInstance().userUnfollowUser(UserSystem.getInstance().getCurrentUser(), followed);
-        }
-        Platform.runLater(() -> {
+        UserAccount currentUser = UserSystem.getInstance().getCurrentUser();
+        TaskExecutor.supply(followButton, () -> {
+            if (!UserSystemController.getInstance().isFollowing(currentUser, followed)) {
+                UserSystemController.getInstance().userFollowUser(currentUser, followed);
+                return true;
+            }
+            UserSystemController.getInstance().userUnfollowUser(currentUser, followed);
+            return false;
+        }).thenAcceptAsync(following -> {
             ResourceBundle bundle = ResourceBundle.getBundle("lang.User", locale);
             followersLabel.setText(bundle.getString("followers") + ": " + followed.getFollowerCount());
-            followButton.setText(followOrUnfollow(followed));
-        });
+            followButton.setText(followOrUnfollow(following));
+        }, TaskExecutor.FX).exceptionally(TaskExecutor::logFailure);
     }
 
     /**
-     * Determines whether the current user should follow or unfollow a specified user account.
+     * Determines whether the follow button should offer to follow or unfollow a user account.
      *
-     * @param user the UserAccount to check for a following relationship with the current user
-     * @return "Follow" if the current user does not follow the specified user, "Unfollow" if the current user already follows the specified user, or null if neither condition is
-     *  met
+     * @param following whether the current user follows the user account
+     * @return "Follow" if the current user does not follow the specified user, "Unfollow" if the current user already follows the specified user
      */
-    private String followOrUnfollow(UserAccount user) {
+    private String followOrUnfollow(boolean following) {
         ResourceBundle bundle = ResourceBundle.getBundle("lang.User", locale);
-        if (user.getFollowerids().contains(UserSystem.getInstance().getCurrentUser().getId())) {
+        if (following) {
             return bundle.getString("unfollow");
-        } else if (!user.getFollowerids().contains(UserSystem.getInstance().getCurrentUser().getId())) {
-            return bundle.getString("follow");
         }
-        return null;
+        return bundle.getString("follow");
     }
 }
\ No newline at end of file
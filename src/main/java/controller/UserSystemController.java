@@ -4,8 +4,10 @@ import lombok.Getter;
 import model.*;
 
 import java.time.Instant;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 
 @Getter
 public class UserSystemController {
@@ -58,10 +60,9 @@ public class UserSystemController {
      * @param userAccount the UserAccount object representing the user to be added
      */
     public void addUser(UserAccount userAccount) {
-        userSystem.getUserAccounts().add(userAccount);
-        String sql = DatabaseController.generateInsertStatement("users", userAccount.getName(),
-                userAccount.getEmail(), userAccount.getUsername(), userAccount.getPassword(), userAccount.getFollowerCount());
-        DatabaseController.insertRecord(sql);
+        userAccount.setId(DatabaseController.insert("users", userAccount.getName(),
+                userAccount.getEmail(), userAccount.getUsername(), userAccount.getPassword(), userAccount.getFollowerCount()));
+        userSystem.addUser(userAccount);
     }
 
     /**
@@ -69,17 +70,15 @@ public class UserSystemController {
      *
      * @param userAccount the user account creating the post
      * @param text the text content of the post
+     * @return the new post
      */
-    public void userPost(UserAccount userAccount, String text) {
-        // threadPool.submit(() -> {
+    public Post userPost(UserAccount userAccount, String text) {
         Post post = userAccount.post(text);
-        String sql = DatabaseController.generateInsertStatement("posts", post.getUserId(), post.getText(),
-                post.getLikedByUserIds().size(), Instant.now().getEpochSecond());
-        DatabaseController.insertRecord(sql);
+        post.setId(DatabaseController.insert("posts", post.getUserId(), post.getText(),
+                post.getLikedByUserIds().size(), Instant.now().getEpochSecond()));
 
-        userSystem.getAllPosts().add(post);
-        userAccount.getPosts().add(post);
-        // });
+        userSystem.addPost(post);
+        return post;
     }
 
     /**
@@ -91,99 +90,172 @@ public class UserSystemController {
      * @param post The post to be removed from the user's account and the system.
      */
     public void userRemovePost(UserAccount userAccount, Post post) {
-        String sql = DatabaseController.generateDeleteStatement("posts", "id", post.getId());
-        DatabaseController.deleteRecord(sql);
+        DatabaseController.delete("posts", "id", post.getId());
 
-        userSystem.getAllPosts().remove(post);
-        userAccount.removePost(post);
+        // Also replaces the posts of the account, which are its timeline in the UserSystem
+        userSystem.removePost(post);
     }
 
     /**
-     * Allows one user to follow another user within the application. This method handles
-     * the database operations required to establish the follow relationship between the users,
-     * updates the list of follower IDs for the followed user, and adjusts the follower count accordingly.
+     * Checks whether one user follows another. The follower IDs of the followed account are only
+     * read from the database the first time they are needed, and are kept up to date in memory
+     * by follows and unfollows from then on.
+     *
+     * @param follower the UserAccount who may be following
+     * @param followed the UserAccount who may be followed
+     * @return true if follower follows followed
+     */
+    public boolean isFollowing(UserAccount follower, UserAccount followed) {
+        loadFollowers(followed);
+        synchronized (followed) {
+            return followed.getFollowerids().contains(follower.getId());
+        }
+    }
+
+    /**
+     * Builds a page of the home feed of a user: the posts of every account they follow and their
+     * own posts, newest first. The followed accounts are read from the database the first time
+     * the feed is built and kept up to date by follows and unfollows from then on.
+     *
+     * @param userAccount the user whose feed is built
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the most posts to return
+     * @return the page of posts and the cursor of the next page
+     */
+    public FeedEngine.Page getHomeFeed(UserAccount userAccount, FeedEngine.Cursor after, int limit) {
+        loadFollowees(userAccount);
+        Set<Integer> authorIds;
+        synchronized (userAccount) {
+            authorIds = new HashSet<>(userAccount.getFolloweeids().size() + 1);
+            userAccount.getFolloweeids().forEach(authorIds::add);
+        }
+        authorIds.add(userAccount.getId());
+        return FeedEngine.getInstance().getFeed(authorIds, after, limit);
+    }
+
+    /**
+     * Allows one user to follow another user within the application. The in-memory follower IDs
+     * and follower count are updated right away, while the follow record and the increment of the
+     * numFollowers column are queued on the write-behind queue. Neither reloads the followers of
+     * the followed account. The follower count is then set to the value returned by the committed
+     * update.
      *
      * @param follower the UserAccount who is initiating the follow action
      * @param followed the UserAccount who is being followed
      */
     public void userFollowUser(UserAccount follower, UserAccount followed) {
-        String sql = DatabaseController.generateFullInsertStatement("follows", follower.getId(), followed.getId());
-        DatabaseController.insertRecord(sql);
-
-        followed.setFollowerids(DatabaseController.selectAllUserFollowsFromUser(followed));
-        followed.followUnfollow();
+        loadFollowers(followed);
+        // The follow sets are replaced by loadFollowers and loadFollowees under the lock of their account
+        synchronized (followed) {
+            followed.addFollower(follower.getId());
+        }
+        synchronized (follower) {
+            if (follower.isFolloweesLoaded()) {
+                follower.getFolloweeids().add(followed.getId());
+            }
+        }
+        userSystem.updateUser(followed);
+        userSystem.updateUser(follower);
 
-        String updateSql = DatabaseController.generateUpdateStatement("users", "numFollowers", followed.getFollowerids().size(), "id", followed.getId());
-        DatabaseController.updateRecord(updateSql);
+        DatabaseController.insertFollow(follower.getId(), followed.getId())
+                .thenAccept(count -> applyCount(count, followed::setFollowerCount))
+                .exceptionally(UserSystemController::logWriteFailure);
     }
 
     /**
-     * Facilitates the action of a user unfollowing another user in the system.
-     * Updates the database records and the in-memory user account data to reflect the change.
+     * Facilitates the action of a user unfollowing another user in the system. The in-memory
+     * user account data is updated right away and the database change is queued on the
+     * write-behind queue.
      *
      * @param unfollower The UserAccount instance representing the user who is initiating the unfollow action.
      * @param unfollowed The UserAccount instance representing the user who is being unfollowed.
      */
     public void userUnfollowUser(UserAccount unfollower, UserAccount unfollowed) {
-        String sql = DatabaseController.generateDeleteStatement("follows", "followerId", unfollower.getId(), "followeeId", unfollowed.getId());
-        DatabaseController.deleteRecord(sql);
+        loadFollowers(unfollowed);
+        synchronized (unfollowed) {
+            unfollowed.removeFollower(unfollower.getId());
+        }
+        synchronized (unfollower) {
+            if (unfollower.isFolloweesLoaded()) {
+                unfollower.getFolloweeids().remove(unfollowed.getId());
+            }
+        }
+        userSystem.updateUser(unfollowed);
+        userSystem.updateUser(unfollower);
 
-        unfollowed.setFollowerids(DatabaseController.selectAllUserFollowsFromUser(unfollowed));
-        unfollowed.followUnfollow();
+        DatabaseController.deleteFollow(unfollower.getId(), unfollowed.getId())
+                .thenAccept(count -> applyCount(count, unfollowed::setFollowerCount))
+                .exceptionally(UserSystemController::logWriteFailure);
+    }
 
-        String updateSql = DatabaseController.generateUpdateStatement("users", "numFollowers", unfollowed.getFollowerids().size(), "id", unfollowed.getId());
-        DatabaseController.updateRecord(updateSql);
+    /**
+     * Checks whether a user has liked a post. The IDs of the users who liked the post are only
+     * read from the database the first time they are needed, and are kept up to date in memory
+     * by likes and unlikes from then on.
+     *
+     * @param userAccount the user who may have liked the post
+     * @param post the post
+     * @return true if the user has liked the post
+     */
+    public boolean hasLiked(UserAccount userAccount, Post post) {
+        loadLikes(post);
+        synchronized (post) {
+            return post.getLikedByUserIds().contains(userAccount.getId());
+        }
     }
 
     /**
-     * Allows a user to like a post. This method will insert a like record into
-     * the database, update the post's liked user IDs, adjust the number of likes,
-     * and update the post's record in the database.
+     * Allows a user to like a post. The post's liked user IDs and number of likes are updated
+     * right away, while the like record and the increment of the numLikes column are queued on
+     * the write-behind queue. Both are O(1): the likes of the post are never reloaded. The number
+     * of likes is then set to the value returned by the committed update.
      *
      * @param userId the ID of the user who is liking the post
      * @param post the Post object representing the post being liked
+     * @return a future completed once the committed number of likes has been applied to the post
      */
-    public void userLikePost(int userId, Post post) {
-        // Insert likes record
-        String insertSql = DatabaseController.generateFullInsertStatement("likes", userId, post.getId());
-        DatabaseController.insertRecord(insertSql);
-
+    public CompletableFuture<Void> userLikePost(int userId, Post post) {
         // Update properties of the post
-        post.setLikedByUserIds(DatabaseController.selectAllUserLikesFromPost(post));
-        post.likeUnlike();
+        loadLikes(post);
+        synchronized (post) {
+            post.like(userId);
+        }
+        userSystem.updatePost(post);
 
-        // Update numLikes column of post record
-        String updateSql = DatabaseController.generateUpdateStatement("posts", "numLikes", post.getLikedByUserIds().size(), "id", post.getId());
-        DatabaseController.updateRecord(updateSql);
+        // Insert likes record and update numLikes column of post record
+        return DatabaseController.insertLike(userId, post.getId())
+                .thenAccept(likes -> applyCount(likes, post::setLikes))
+                .exceptionally(UserSystemController::logWriteFailure);
     }
 
     /**
-     * Allows a user to unlike a post. This method removes the like record
-     * from the database, updates the post properties by fetching the current
-     * list of users who liked the post, and updates the number of likes
-     * associated with the post in the database.
+     * Allows a user to unlike a post. The post properties are updated right away, while the
+     * removal of the like record and the decrement of the numLikes column are queued on the
+     * write-behind queue.
      *
      * @param userAccount the user account of the user unliking the post
      * @param post the post that is being unliked
+     * @return a future completed once the committed number of likes has been applied to the post
      */
-    public void userUnlikePost(UserAccount userAccount, Post post) {
-        // Remove likes record
-        String sql = DatabaseController.generateDeleteStatement("likes", "userId", userAccount.getId(), "postId", post.getId());
-        DatabaseController.deleteRecord(sql);
-
+    public CompletableFuture<Void> userUnlikePost(UserAccount userAccount, Post post) {
         // Update properties of the post
-        post.setLikedByUserIds(DatabaseController.selectAllUserLikesFromPost(post));
-        post.likeUnlike();
+        loadLikes(post);
+        synchronized (post) {
+            post.unlike(userAccount.getId());
+        }
+        userSystem.updatePost(post);
 
-        // Update numLikes column of post record
-        String updateSql = DatabaseController.generateUpdateStatement("posts", "numLikes", post.getLikedByUserIds().size(), "id", post.getId());
-        DatabaseController.updateRecord(updateSql);
+        // Remove likes record and update numLikes column of post record
+        return DatabaseController.deleteLike(userAccount.getId(), post.getId())
+                .thenAccept(likes -> applyCount(likes, post::setLikes))
+                .exceptionally(UserSystemController::logWriteFailure);
     }
 
     /**
      * Submits a report for a specified post made by a user. The report includes the post in question,
-     * the reason for reporting, and the reporter's details. The report is then persisted in the database
-     * and added to the open reports pool in the ReportSystem.
+     * the reason for reporting, and the reporter's details. The report is added to the open reports
+     * pool in the ReportSystem right away and queued for insertion on the write-behind queue; its ID
+     * is replaced by the generated one once the insert has been committed.
      *
      * @param reporter The user account submitting the report.
      * @param post The post being reported.
@@ -191,21 +263,24 @@ public class UserSystemController {
      */
     public void reportPost(UserAccount reporter, Post post, String reason) {
         PostReport postReport = reporter.reportPost(post, reason);
-        String sql = DatabaseController.generateInsertStatement(
+        ReportSystem.getInstance().addPostReport(postReport);
+
+        DatabaseController.queueInsert(
                 "post_reports",
+                DatabaseController.POST_REPORT_COLUMNS,
                 reason,
                 postReport.getStatus().toString(),
                 Instant.ofEpochMilli(postReport.getDateReported().getTime()).getEpochSecond(),
                 reporter.getId(),
-                post.getId());
-        DatabaseController.insertRecord(sql);
-
-        ReportSystem.getInstance().getPostReports().add(postReport);
+                post.getId())
+                .thenAccept(postReport::setId)
+                .exceptionally(UserSystemController::logWriteFailure);
     }
 
     /**
-     * Reports a user for a specific reason, generating a user report and inserting it into the database.
-     * The report is added to the system's list of open reports.
+     * Reports a user for a specific reason. The report is added to the system's list of open
+     * reports right away and queued for insertion on the write-behind queue; its ID is replaced
+     * by the generated one once the insert has been committed.
      *
      * @param reporter the user account that is reporting another user
      * @param target the user account being reported
@@ -213,16 +288,83 @@ public class UserSystemController {
      */
     public void reportUser(UserAccount reporter, UserAccount target, String reportReason) {
         UserReport userReport = reporter.reportAccount(target, reportReason);
-        String sql = DatabaseController.generateInsertStatement(
+        ReportSystem.getInstance().addUserReport(userReport);
+
+        DatabaseController.queueInsert(
                 "user_reports",
+                DatabaseController.USER_REPORT_COLUMNS,
                 reportReason,
                 userReport.getStatus().toString(),
                 Instant.ofEpochMilli(userReport.getDateReported().getTime()).getEpochSecond(),
                 reporter.getId(),
-                target.getId());
-        DatabaseController.insertRecord(sql);
+                target.getId())
+                .thenAccept(userReport::setId)
+                .exceptionally(UserSystemController::logWriteFailure);
+    }
+
+    /**
+     * Reads the IDs of the users who liked a post from the database, unless they have already been loaded.
+     *
+     * @param post the post whose likes are needed
+     */
+    private static void loadLikes(Post post) {
+        synchronized (post) {
+            if (!post.isLikesLoaded()) {
+                post.loadLikedByUserIds(DatabaseController.selectAllUserLikesFromPost(post));
+                UserSystem.getInstance().updatePost(post);
+            }
+        }
+    }
 
-        ReportSystem.getInstance().getUserReports().add(userReport);
+    /**
+     * Reads the follower IDs of an account from the database, unless they have already been loaded.
+     *
+     * @param account the account whose followers are needed
+     */
+    private static void loadFollowers(UserAccount account) {
+        synchronized (account) {
+            if (!account.isFollowersLoaded()) {
+                account.loadFollowerids(DatabaseController.selectAllUserFollowsFromUser(account));
+                UserSystem.getInstance().updateUser(account);
+            }
+        }
+    }
+
+    /**
+     * Reads the IDs of the accounts a user follows from the database, unless they have already been loaded.
+     *
+     * @param account the account whose followees are needed
+     */
+    private static void loadFollowees(UserAccount account) {
+        synchronized (account) {
+            if (!account.isFolloweesLoaded()) {
+                account.loadFolloweeids(DatabaseController.selectAllUserFolloweesFromUser(account));
+                UserSystem.getInstance().updateUser(account);
+            }
+        }
+    }
+
+    /**
+     * Applies a counter returned by a committed write, unless the row it belonged to was gone.
+     *
+     * @param count the committed counter value, or -1 if no row was updated
+     * @param setter where to store the counter
+     */
+    private static void applyCount(int count, IntConsumer setter) {
+        if (count >= 0) {
+            setter.accept(count);
+        }
+    }
+
+    /**
+     * Logs a write that failed after being queued on the write-behind queue.
+     *
+     * @param e the failure
+     * @return nothing, so it can be used with {@link java.util.concurrent.CompletableFuture#exceptionally}
+     */
+    private static Void logWriteFailure(Throwable e) {
+        System.err.println("Queued write failed: " + e.getMessage());
+        return null;
     }
 
     /**
@@ -232,7 +374,7 @@ public class UserSystemController {
      * @return the UserAccount associated with the given username
      */
     public UserAccount getUserByUsername(String username) {
-        String sql = DatabaseController.generateSelectStatement("users", "username", username);
-        return DatabaseController.selectUserRecord(sql).getFirst();
+        UserAccount user = UserSystem.getInstance().getUserByUsername(username);
+        return user != null ? user : DatabaseController.selectUserRecord("username", username).getFirst();
     }
 }
@@ -0,0 +1,277 @@
+package controller;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies queued database mutations on a single writer thread, grouping them into batches.
+ *
+ * Every batch runs in one transaction on the writer connection, so a burst of likes, follows
+ * or reports costs one commit (and one fsync) instead of one per statement. A batch is closed
+ * once it holds {@link Config#maxBatchSize()} mutations or once {@link Config#maxLinger()} has
+ * passed since its first mutation was taken. Each mutation runs inside its own savepoint, so
+ * a failing mutation only fails its own future and the rest of the batch still commits.
+ *
+ * The writer thread outlives any failure of a mutation, including an {@link Error}. Should it
+ * stop anyway, the queue closes and fails every mutation still queued, so no caller waits on a
+ * future that will never complete.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+    private final ConnectionPool writer;
+    private final Config config;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder mutations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong largestBatch = new AtomicLong();
+
+    // Marks the end of the queue once it is closed
+    private static final Pending<Void> END = new Pending<>(connection -> null, new CompletableFuture<>());
+
+    /**
+     * A unit of work run on the writer connection inside the current batch transaction.
+     *
+     * @param <T> the type of result handed to the caller once the batch has committed
+     */
+    @FunctionalInterface
+    public interface Mutation<T> {
+        T apply(ConnectionPool.CachingConnection connection) throws SQLException;
+    }
+
+    /**
+     * Batching settings of the queue.
+     *
+     * @param maxBatchSize the most mutations committed in one transaction
+     * @param maxLinger how long the writer waits for more mutations before committing a batch
+     */
+    public record Config(int maxBatchSize, Duration maxLinger) {
+        public Config {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1");
+            }
+        }
+
+        /**
+         * Builds the default configuration, which can be overridden with the
+         * {@code y.db.batch.maxSize} and {@code y.db.batch.maxLingerMillis} system properties.
+         *
+         * @return the default batching configuration
+         */
+        public static Config defaults() {
+            return new Config(
+                    Integer.getInteger("y.db.batch.maxSize", 256),
+                    Duration.ofMillis(Long.getLong("y.db.batch.maxLingerMillis", 5L)));
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the queue counters.
+     *
+     * @param batches number of batches committed
+     * @param mutations number of mutations applied
+     * @param failures number of mutations that failed
+     * @param largestBatch the most mutations committed in one batch
+     * @param queued number of mutations waiting for the writer
+     */
+    public record Metrics(long batches, long mutations, long failures, long largestBatch, int queued) {
+        /**
+         * @return the mean number of mutations per committed batch
+         */
+        public double averageBatchSize() {
+            return batches == 0 ? 0 : mutations / (double) batches;
+        }
+    }
+
+    private record Pending<T>(Mutation<T> mutation, CompletableFuture<T> future) {}
+
+    /**
+     * Creates the queue and starts its writer thread.
+     *
+     * @param writer the pool holding the writer connection
+     * @param config the batching settings
+     */
+    public WriteBehindQueue(ConnectionPool writer, Config config) {
+        this.writer = writer;
+        this.config = config;
+        this.thread = Thread.ofPlatform().daemon().name("y-db-write-behind").start(this::run);
+    }
+
+    /**
+     * Queues a mutation for the next batch.
+     *
+     * @param mutation the work to run on the writer connection
+     * @return a future completed with the mutation result once its batch has committed
+     */
+    public <T> CompletableFuture<T> submit(Mutation<T> mutation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Write-behind queue is closed"));
+            return future;
+        }
+        queue.add(new Pending<>(mutation, future));
+        return future;
+    }
+
+    /**
+     * Queues an empty mutation behind everything submitted so far. Since batches commit in
+     * order, the returned future completes once every earlier mutation is durable.
+     *
+     * @return a future completed when all earlier mutations have committed
+     */
+    public CompletableFuture<Void> flush() {
+        return submit(connection -> null);
+    }
+
+    /**
+     * Blocks until every mutation submitted so far has committed.
+     *
+     * @param timeout how long to wait at most
+     * @throws TimeoutException if the writer did not catch up in time
+     */
+    public void awaitFlush(Duration timeout) throws TimeoutException {
+        try {
+            flush().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Write-behind queue failed to flush", e.getCause());
+        }
+    }
+
+    /**
+     * @return a snapshot of the queue counters
+     */
+    public Metrics getMetrics() {
+        return new Metrics(batches.sum(), mutations.sum(), failures.sum(), largestBatch.get(), queue.size());
+    }
+
+    /**
+     * Stops accepting mutations, commits everything already queued and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The writer loop: waits for a first mutation, lingers for more, then commits the batch.
+     */
+    private void run() {
+        List<Pending<?>> batch = new ArrayList<>(config.maxBatchSize());
+        boolean running = true;
+        try {
+            while (running) {
+                try {
+                    Pending<?> first = queue.take();
+                    if (first == END) {
+                        break;
+                    }
+                    batch.add(first);
+
+                    long deadline = System.nanoTime() + config.maxLinger().toNanos();
+                    while (batch.size() < config.maxBatchSize()) {
+                        Pending<?> next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        if (next == END) {
+                            running = false;
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                } catch (Throwable e) {
+                    // Fails the batch but keeps the writer going for the mutations queued behind it
+                    batch.forEach(pending -> pending.future().completeExceptionally(e));
+                    System.err.println("Write-behind error: " + e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // Anything still queued after the end marker was never accepted, and nothing is
+            // accepted once the writer has stopped
+            closed = true;
+            Pending<?> left;
+            while ((left = queue.poll()) != null) {
+                left.future().completeExceptionally(new IllegalStateException("Write-behind queue is closed"));
+            }
+        }
+    }
+
+    /**
+     * Runs a batch in one transaction and completes the futures of its mutations.
+     *
+     * @param batch the mutations to apply, in submission order
+     */
+    private void commit(List<Pending<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        Throwable[] errors = new Throwable[batch.size()];
+
+        try (ConnectionPool.CachingConnection connection = writer.getConnection()) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < batch.size(); i++) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    results[i] = batch.get(i).mutation().apply(connection);
+                    connection.releaseSavepoint(savepoint);
+                } catch (Throwable e) {
+                    connection.rollback(savepoint);
+                    errors[i] = e;
+                }
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            // The whole batch was rolled back when its connection went back to the pool
+            failures.add(batch.size());
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            System.err.println("SQL error: " + e.getMessage());
+            return;
+        }
+
+        batches.increment();
+        mutations.add(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors[i] != null) {
+                failures.increment();
+                batch.get(i).future().completeExceptionally(errors[i]);
+            } else {
+                complete(batch.get(i), results[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(Pending<T> pending, Object result) {
+        pending.future().complete((T) result);
+    }
+}
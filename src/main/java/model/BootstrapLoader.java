@@ -0,0 +1,193 @@
+package model;
+
+import controller.DatabaseController;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Reads the whole database into memory for the eager loading mode of {@link UserSystem} and
+ * {@link ReportSystem}.
+ *
+ * Every table is read at once, each on its own virtual thread over the read-only connections of
+ * the database, so startup takes about as long as the largest table instead of the sum of all of
+ * them. The likes and follows tables are read in one pass each and attached to their posts and
+ * accounts, so which posts a user liked and which users they follow is right from the start
+ * rather than read again per post or per account. {@link #warmUp()} starts the load in the
+ * background when the application starts; the systems wait for it when they are created.
+ */
+public final class BootstrapLoader {
+    private static volatile CompletableFuture<Snapshot> load;
+
+    /**
+     * The content of the database, with likes and follows attached to their posts and accounts.
+     *
+     * @param users every user account
+     * @param posts every post
+     * @param admins every admin account
+     * @param userReports every user report
+     * @param postReports every post report
+     * @param timings how long the load took
+     */
+    public record Snapshot(List<UserAccount> users, List<Post> posts, List<AdminAccount> admins,
+                           List<UserReport> userReports, List<PostReport> postReports, Timings timings) {}
+
+    /**
+     * How long the load of the database took.
+     *
+     * @param tables how long each table took to read, by table name
+     * @param total how long the whole load took, from its start until every table was read
+     */
+    public record Timings(Map<String, Duration> tables, Duration total) {
+        /**
+         * @return a one-line summary of the timings, e.g. for the log
+         */
+        public String summary() {
+            StringJoiner joiner = new StringJoiner(", ", "Loaded the database in " + total.toMillis() + " ms (", ")");
+            tables.forEach((table, duration) -> joiner.add(table + " " + duration.toMillis() + " ms"));
+            return joiner.toString();
+        }
+    }
+
+    /**
+     * The BootstrapLoader only has static members.
+     */
+    private BootstrapLoader() {
+    }
+
+    /**
+     * Starts reading the database in the background and creates the systems from it as soon as
+     * it has been read, so that they are ready by the time a user logs in. Does nothing in lazy
+     * loading mode, where nothing is read up front.
+     */
+    public static void warmUp() {
+        if (LoadingConfig.defaults().lazy()) {
+            return;
+        }
+        start();
+        Thread.ofVirtual().name("y-warm-up").start(() -> {
+            try {
+                UserSystem.getInstance();
+                ReportSystem.getInstance();
+            } catch (RuntimeException e) {
+                System.err.println("Warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return the timings of the load, or null if it has not completed
+     */
+    public static Timings getTimings() {
+        CompletableFuture<Snapshot> current = load;
+        return current == null || !current.isDone() || current.isCompletedExceptionally()
+                ? null : current.join().timings();
+    }
+
+    /**
+     * Waits for the load of the database, starting it if it has not been started yet.
+     *
+     * @return the content of the database
+     */
+    static Snapshot await() {
+        try {
+            return start().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static CompletableFuture<Snapshot> start() {
+        if (load == null) {
+            synchronized (BootstrapLoader.class) {
+                if (load == null) {
+                    load = readAll();
+                }
+            }
+        }
+        return load;
+    }
+
+    private static CompletableFuture<Snapshot> readAll() {
+        long start = System.nanoTime();
+        Map<String, Duration> tables = new ConcurrentSkipListMap<>();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("y-bootstrap-", 0).factory());
+        try {
+            CompletableFuture<List<UserAccount>> users = read("users", DatabaseController::selectAllUsers, tables, executor);
+            CompletableFuture<List<Post>> posts = read("posts", DatabaseController::selectAllPosts, tables, executor);
+            CompletableFuture<List<AdminAccount>> admins = read("admins", DatabaseController::selectAllAdmins, tables, executor);
+            CompletableFuture<List<UserReport>> userReports =
+                    read("user_reports", DatabaseController::selectAllUserReports, tables, executor);
+            CompletableFuture<List<PostReport>> postReports =
+                    read("post_reports", DatabaseController::selectAllPostReports, tables, executor);
+            CompletableFuture<Map<Integer, IntSet>> likes = read("likes", DatabaseController::selectAllLikes, tables, executor);
+            CompletableFuture<Map<Integer, IntSet>> follows =
+                    read("follows", DatabaseController::selectAllFollows, tables, executor);
+
+            CompletableFuture<List<UserAccount>> followingUsers = users.thenCombine(follows, BootstrapLoader::attachFollows);
+            CompletableFuture<List<Post>> likedPosts = posts.thenCombine(likes, BootstrapLoader::attachLikes);
+
+            return CompletableFuture.allOf(followingUsers, likedPosts, admins, userReports, postReports).thenApply(done -> {
+                Timings timings = new Timings(Collections.unmodifiableMap(tables), Duration.ofNanos(System.nanoTime() - start));
+                if (Boolean.getBoolean("y.db.verbose")) {
+                    System.out.println(timings.summary());
+                }
+                return new Snapshot(followingUsers.join(), likedPosts.join(), admins.join(),
+                        userReports.join(), postReports.join(), timings);
+            });
+        } finally {
+            // Lets the reads already submitted finish, and ends their threads once they have
+            executor.shutdown();
+        }
+    }
+
+    private static <T> CompletableFuture<T> read(String table, Supplier<T> query, Map<String, Duration> tables,
+                                                 ExecutorService executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T result = query.get();
+            tables.put(table, Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        }, executor);
+    }
+
+    /**
+     * Gives every user the IDs of the users they follow and of their followers, and marks both
+     * as loaded, so they are never read again per account.
+     */
+    private static List<UserAccount> attachFollows(List<UserAccount> users, Map<Integer, IntSet> followees) {
+        Map<Integer, IntSet> followers = new HashMap<>();
+        followees.forEach((followerId, followeeIds) -> {
+            followeeIds.forEach(followeeId -> followers.computeIfAbsent(followeeId, id -> new IntSet()).add(followerId));
+        });
+        for (UserAccount user : users) {
+            user.loadFolloweeids(followees.getOrDefault(user.getId(), new IntSet()));
+            user.loadFollowerids(followers.getOrDefault(user.getId(), new IntSet()));
+        }
+        return users;
+    }
+
+    /**
+     * Gives every post the IDs of the users who liked it, and marks them as loaded, so they are
+     * never read again per post.
+     */
+    private static List<Post> attachLikes(List<Post> posts, Map<Integer, IntSet> likes) {
+        for (Post post : posts) {
+            post.loadLikedByUserIds(likes.getOrDefault(post.getId(), new IntSet()));
+        }
+        return posts;
+    }
+}
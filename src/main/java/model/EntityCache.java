@@ -0,0 +1,182 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded, thread-safe cache of entities read from the database, evicting the least recently
+ * used entries once their total weight goes over the maximum weight of the cache.
+ *
+ * The weight of an entity is an estimate of its heap size, given by {@link EntityWeigher}, so
+ * that the memory held by the cache stays predictable whether it holds many small entities or a
+ * few large ones. Weights are taken when an entity is put, so a controller that changes a cached
+ * entity puts it again to update its weight. Controllers that delete a record invalidate its
+ * entry, so a deleted entity is never served from the cache.
+ *
+ * Used by the systems in lazy loading mode, where accounts, posts and reports are fetched on
+ * demand instead of being held in memory for the life of the application.
+ *
+ * @param <K> the type of the key, e.g. an ID or a username
+ * @param <V> the type of the cached entity
+ */
+public class EntityCache<K, V> {
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    // Access order, so the first entry is the least recently used one
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    // Statistics, guarded by the lock of the cache like the entries
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private record Entry<V>(V value, long weight) {}
+
+    /**
+     * A point-in-time snapshot of the cache counters.
+     *
+     * @param name the name of the cache
+     * @param hits number of lookups answered by the cache
+     * @param misses number of lookups the cache could not answer
+     * @param evictions number of entries dropped to stay under the maximum weight
+     * @param invalidations number of entries dropped because their record changed or was deleted
+     * @param size number of cached entities
+     * @param weight total weight of the cached entities
+     * @param maxWeight the maximum weight of the cache
+     */
+    public record Stats(String name, long hits, long misses, long evictions, long invalidations,
+                        int size, long weight, long maxWeight) {
+        /**
+         * @return the share of lookups answered by the cache, between 0 and 1
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : hits / (double) lookups;
+        }
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name the name of the cache, used in its statistics
+     * @param maxWeight the most total weight held at once
+     * @param weigher estimates the weight of an entity
+     */
+    public EntityCache(String name, long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache weight must be at least 1");
+        }
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @param key the key of the entity
+     * @return the cached entity, or null if it is not cached
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    /**
+     * Caches an entity, replacing any entity cached under the same key. Also used to write
+     * through a change to a cached entity, which weighs it again.
+     *
+     * @param key the key of the entity
+     * @param value the entity
+     */
+    public synchronized void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, Math.max(1, weigher.applyAsLong(value)));
+        Entry<V> replaced = entries.put(key, entry);
+        if (replaced != null) {
+            weight -= replaced.weight();
+        }
+        weight += entry.weight();
+        evict();
+    }
+
+    /**
+     * Caches an entity unless one is already cached under the same key, so that every reader
+     * shares one instance of each entity.
+     *
+     * @param key the key of the entity
+     * @param value the entity
+     * @return the entity now cached under the key
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        Entry<V> cached = entries.get(key);
+        if (cached != null) {
+            return cached.value();
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Drops the entity cached under a key, e.g. once its record has been deleted.
+     *
+     * @param key the key of the entity
+     */
+    public synchronized void invalidate(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drops every cached entity.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return a snapshot of the cached entities, least recently used first
+     */
+    public synchronized List<V> values() {
+        List<V> values = new ArrayList<>(entries.size());
+        for (Entry<V> entry : entries.values()) {
+            values.add(entry.value());
+        }
+        return values;
+    }
+
+    /**
+     * @return a snapshot of the cache counters
+     */
+    public synchronized Stats getStats() {
+        return new Stats(name, hits, misses, evictions, invalidations, entries.size(), weight, maxWeight);
+    }
+
+    /**
+     * Drops least recently used entries until the cache is under its maximum weight. The most
+     * recent entry is always kept, even if it weighs more than the whole cache on its own.
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && entries.size() > 1 && eldest.hasNext()) {
+            Entry<V> entry = eldest.next().getValue();
+            eldest.remove();
+            weight -= entry.weight();
+            evictions++;
+        }
+    }
+}
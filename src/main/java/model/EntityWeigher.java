@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * Estimates the heap size of the entities held by an {@link EntityCache}, in bytes.
+ *
+ * The estimates count the object headers and fields, the characters of the strings and the
+ * IDs held in the sets of an entity. They are meant to keep the weight of a cache in
+ * proportion to the memory it holds, not to be exact.
+ */
+public final class EntityWeigher {
+    // Object header and fields of an entity, with the references to its strings and collections
+    private static final long ENTITY = 64;
+    // Header, fields and backing array header of a String
+    private static final long STRING = 40;
+    // Header and fields of an IntSet with the header of its array
+    private static final long INT_SET = 40;
+
+    /**
+     * The estimated heap size of an entry of the username caches, which map a username to an ID.
+     */
+    public static final long USERNAME_ENTRY = 96;
+
+    /**
+     * The EntityWeigher only has static members.
+     */
+    private EntityWeigher() {
+    }
+
+    /**
+     * @param user a user account
+     * @return the estimated heap size of the account and its follower and followee IDs
+     */
+    public static long weigh(UserAccount user) {
+        return weigh((Account) user) + setWeight(user.getFollowerids()) + setWeight(user.getFolloweeids());
+    }
+
+    /**
+     * @param account an account
+     * @return the estimated heap size of the account
+     */
+    public static long weigh(Account account) {
+        return ENTITY + stringWeight(account.getName()) + stringWeight(account.getEmail())
+                + stringWeight(account.getUsername()) + stringWeight(account.getPassword());
+    }
+
+    /**
+     * @param post a post
+     * @return the estimated heap size of the post, its text and the IDs of the users who liked it
+     */
+    public static long weigh(Post post) {
+        return ENTITY + stringWeight(post.getText()) + setWeight(post.getLikedByUserIds());
+    }
+
+    /**
+     * @param report a user or post report
+     * @return the estimated heap size of the report and its reason
+     */
+    public static long weigh(Report report) {
+        return ENTITY + stringWeight(report.getReason());
+    }
+
+    private static long stringWeight(String value) {
+        return value == null ? 0 : STRING + value.length();
+    }
+
+    private static long setWeight(IntSet ids) {
+        return ids == null ? 0 : INT_SET + (long) Integer.BYTES * ids.capacity();
+    }
+}
@@ -0,0 +1,200 @@
+package model;
+
+import controller.DatabaseController;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Builds the home feed of a user out of the timelines of the accounts they follow.
+ *
+ * Every author timeline in {@link UserSystem} is already sorted by date posted, so a page of
+ * the feed is a k-way merge: a heap holds the newest unread post of each followed author, and
+ * each of the N posts of a page costs one heap operation. A page therefore costs
+ * O(k log k + N log k) for k followees, no matter how many posts the system holds.
+ *
+ * Authors whose timeline is not held in memory, such as every author in lazy loading mode, are
+ * read from the database instead, one keyset page at a time, and that page joins the merge as
+ * one more timeline.
+ */
+public class FeedEngine {
+    /**
+     * The default number of posts in a page of the feed.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * The singleton instance of the FeedEngine class, created lazily by {@link #getInstance()}.
+     */
+    private static FeedEngine instance;
+
+    /**
+     * The position of the last post of a page. The next page starts with the first post that
+     * is strictly older, using the post ID to break ties between posts of the same date.
+     *
+     * @param datePosted the date of the last post returned
+     * @param postId the ID of the last post returned
+     */
+    public record Cursor(Date datePosted, int postId) {
+        /**
+         * @param post the last post of a page
+         * @return the cursor continuing after that post
+         */
+        public static Cursor after(Post post) {
+            return new Cursor(post.getDatePosted(), post.getId());
+        }
+
+        /**
+         * @param post the post to compare
+         * @return true if the post comes after this cursor in newest-first order
+         */
+        public boolean precedes(Post post) {
+            int byDate = post.getDatePosted().compareTo(datePosted);
+            return byDate < 0 || (byDate == 0 && post.getId() < postId);
+        }
+    }
+
+    /**
+     * A page of the feed.
+     *
+     * @param posts the posts of the page, newest first
+     * @param next the cursor of the following page, or null if this is the last page
+     */
+    public record Page(List<Post> posts, Cursor next) {
+        /**
+         * @return true if there are older posts after this page
+         */
+        public boolean hasMore() {
+            return next != null;
+        }
+    }
+
+    // The read position of one author timeline during a merge
+    private record Head(List<Post> timeline, int index) {
+        Post post() {
+            return timeline.get(index);
+        }
+    }
+
+    /**
+     * The FeedEngine has no state of its own; it reads the timelines kept by {@link UserSystem}.
+     */
+    private FeedEngine() {
+    }
+
+    /**
+     * Retrieves the singleton instance of the FeedEngine class, using double-checked locking
+     * to maintain thread safety.
+     *
+     * @return the singleton instance of FeedEngine
+     */
+    public static FeedEngine getInstance() {
+        if (instance == null) {
+            synchronized (FeedEngine.class) {
+                if (instance == null) {
+                    instance = new FeedEngine();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Merges the timelines of the given authors into one page of posts, newest first.
+     *
+     * @param authorIds the IDs of the authors whose posts make up the feed
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the most posts to return
+     * @return the page of posts and the cursor of the next page
+     */
+    public Page getFeed(Collection<Integer> authorIds, Cursor after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        UserSystem userSystem = UserSystem.getInstance();
+
+        // One extra row tells whether the database holds more than this page
+        Set<Integer> missing = new HashSet<>();
+        for (int authorId : authorIds) {
+            if (!userSystem.isResident(authorId)) {
+                missing.add(authorId);
+            }
+        }
+        List<Post> fetched = missing.isEmpty() ? List.of()
+                : DatabaseController.selectPostsPage(missing, after, limit + 1).stream().map(userSystem::cachePost).toList();
+
+        // The timelines are immutable snapshots, so the merge takes no lock: posts added or removed
+        // meanwhile show up in the next page instead of holding up this one
+        List<List<Post>> timelines = new ArrayList<>(authorIds.size());
+        for (int authorId : authorIds) {
+            if (!missing.contains(authorId)) {
+                timelines.add(userSystem.getTimeline(authorId));
+            }
+        }
+        return merge(timelines, fetched, after, limit);
+    }
+
+    /**
+     * Merges author timelines and a page read from the database into one page of posts, newest first.
+     *
+     * @param timelines the timelines of the authors held in memory, each oldest first
+     * @param fetched the posts of the other authors after the cursor, newest first, at most limit + 1 of them
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the most posts to return
+     * @return the page of posts and the cursor of the next page
+     */
+    static Page merge(List<List<Post>> timelines, List<Post> fetched, Cursor after, int limit) {
+        PriorityQueue<Head> heap = new PriorityQueue<>(timelines.size() + 1,
+                (a, b) -> UserSystem.POSTED_ORDER.compare(b.post(), a.post()));
+        for (List<Post> timeline : timelines) {
+            int index = after == null ? timeline.size() - 1 : lastIndexBefore(timeline, after);
+            if (index >= 0) {
+                heap.add(new Head(timeline, index));
+            }
+        }
+        if (!fetched.isEmpty()) {
+            heap.add(new Head(fetched.reversed(), fetched.size() - 1));
+        }
+
+        List<Post> posts = new ArrayList<>(Math.min(limit, DEFAULT_PAGE_SIZE));
+        while (posts.size() < limit && !heap.isEmpty()) {
+            Head head = heap.poll();
+            posts.add(head.post());
+            if (head.index() > 0) {
+                heap.add(new Head(head.timeline(), head.index() - 1));
+            }
+        }
+
+        Cursor next = heap.isEmpty() || posts.isEmpty() ? null : Cursor.after(posts.getLast());
+        return new Page(posts, next);
+    }
+
+    /**
+     * Finds the newest post of an oldest-first timeline that comes after the cursor.
+     *
+     * @param timeline the posts of an author, oldest first
+     * @param cursor the cursor to continue from
+     * @return the index of that post, or -1 if every post is newer than the cursor
+     */
+    static int lastIndexBefore(List<Post> timeline, Cursor cursor) {
+        int low = 0;
+        int high = timeline.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (cursor.precedes(timeline.get(middle))) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,299 @@
+package model;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of int IDs, such as the users who liked a post or follow an account, stored without
+ * boxing them.
+ *
+ * A small set is a sorted int array searched with a binary search, which costs 4 bytes per ID
+ * instead of the 50 or so of a boxed entry of a HashSet. Once it holds more than
+ * {@link #SORTED_MAX} IDs, inserting into the middle of the array gets costly, so the set moves
+ * to an open-addressing hash table of ints with linear probing, kept at most half full. It moves
+ * back to a sorted array when enough IDs are removed. Lookups are O(log n) while sorted and O(1)
+ * once hashed.
+ *
+ * Like the HashSets it replaces, an IntSet is not thread-safe: callers that share one across
+ * threads guard it with the lock of its owner.
+ */
+public final class IntSet {
+    /**
+     * The most IDs kept in a sorted array before the set moves to a hash table.
+     */
+    static final int SORTED_MAX = 32;
+    // Marks a free slot of the hash table; the set remembers separately whether it holds this ID
+    private static final int FREE = Integer.MIN_VALUE;
+
+    // Sorted IDs in the first size slots, or the hash table once hashed
+    private int[] values;
+    private int size;
+    private boolean hashed;
+    private boolean containsFree;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntSet() {
+        this.values = new int[0];
+    }
+
+    /**
+     * @param ids the IDs of the set
+     * @return a new set holding the given IDs
+     */
+    public static IntSet of(int... ids) {
+        IntSet set = new IntSet();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    /**
+     * @param id an ID
+     * @return true if the set holds the ID
+     */
+    public boolean contains(int id) {
+        if (!hashed) {
+            return Arrays.binarySearch(values, 0, size, id) >= 0;
+        }
+        if (id == FREE) {
+            return containsFree;
+        }
+        return values[slot(id)] == id;
+    }
+
+    /**
+     * Adds an ID to the set.
+     *
+     * @param id the ID to add
+     * @return true if the set did not hold the ID yet
+     */
+    public boolean add(int id) {
+        if (!hashed) {
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index >= 0) {
+                return false;
+            }
+            if (size == SORTED_MAX) {
+                rehash(tableCapacity(size + 1));
+                return add(id);
+            }
+            int insertion = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(SORTED_MAX, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+            values[insertion] = id;
+            size++;
+            return true;
+        }
+
+        if (id == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int slot = slot(id);
+        if (values[slot] == id) {
+            return false;
+        }
+        values[slot] = id;
+        size++;
+        if (size * 2 > values.length) {
+            rehash(values.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes an ID from the set.
+     *
+     * @param id the ID to remove
+     * @return true if the set held the ID
+     */
+    public boolean remove(int id) {
+        if (!hashed) {
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        if (id == FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+        } else {
+            int slot = slot(id);
+            if (values[slot] != id) {
+                return false;
+            }
+            deleteSlot(slot);
+        }
+        size--;
+        if (size <= SORTED_MAX / 2) {
+            values = toArray();
+            hashed = false;
+            containsFree = false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of IDs in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the set holds no IDs
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Runs an action for every ID of the set, in no particular order.
+     *
+     * @param action the action to run
+     */
+    public void forEach(IntConsumer action) {
+        if (!hashed) {
+            for (int i = 0; i < size; i++) {
+                action.accept(values[i]);
+            }
+            return;
+        }
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (int value : values) {
+            if (value != FREE) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return the IDs of the set, sorted
+     */
+    public int[] toArray() {
+        if (!hashed) {
+            return Arrays.copyOf(values, size);
+        }
+        int[] ids = new int[size];
+        int[] index = {0};
+        forEach(id -> ids[index[0]++] = id);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * @return the number of int slots allocated by the set, used to estimate its heap size
+     */
+    int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Finds the slot of the hash table holding an ID, or the free slot where it would go.
+     */
+    private int slot(int id) {
+        int mask = values.length - 1;
+        int slot = mix(id) & mask;
+        while (values[slot] != FREE && values[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Frees a slot of the hash table and moves back the IDs that probed past it, so that every
+     * ID stays reachable from its home slot without leaving tombstones behind.
+     */
+    private void deleteSlot(int slot) {
+        int mask = values.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (values[next] != FREE) {
+            int home = mix(values[next]) & mask;
+            // Move the ID into the free slot unless its home slot lies cyclically after the free slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[free] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        int[] ids = toArray();
+        values = new int[capacity];
+        Arrays.fill(values, FREE);
+        hashed = true;
+        containsFree = false;
+        size = 0;
+        for (int id : ids) {
+            add(id);
+        }
+    }
+
+    /**
+     * @return the smallest power of two at least twice the given size
+     */
+    private static int tableCapacity(int size) {
+        return Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+    }
+
+    /**
+     * Spreads consecutive IDs over the hash table.
+     */
+    static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntSet other) || other.size != size) {
+            return false;
+        }
+        for (int id : toArray()) {
+            if (!other.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach(id -> hash[0] += id);
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int id : toArray()) {
+            joiner.add(Integer.toString(id));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * How {@link UserSystem} and {@link ReportSystem} load their data.
+ *
+ * In the default eager mode every account, post and report is read when the systems are
+ * created and held in memory. In lazy mode nothing is read up front: accounts and posts are
+ * fetched on demand by indexed lookups and kept in weight-bounded {@link EntityCache}s, and
+ * reports are read the first time they are listed. Startup time and heap then no longer grow
+ * with the size of the database.
+ *
+ * @param lazy true to fetch entities on demand instead of loading every table at startup
+ * @param cacheMaxWeight the most estimated bytes held by each entity cache in lazy mode
+ */
+public record LoadingConfig(boolean lazy, long cacheMaxWeight) {
+    public LoadingConfig {
+        if (cacheMaxWeight < 1) {
+            throw new IllegalArgumentException("Cache weight must be at least 1");
+        }
+    }
+
+    /**
+     * Builds the default configuration, which can be overridden with the {@code y.model.lazy}
+     * and {@code y.model.cacheMaxBytes} system properties.
+     *
+     * @return the default loading configuration
+     */
+    public static LoadingConfig defaults() {
+        return new LoadingConfig(
+                Boolean.getBoolean("y.model.lazy"),
+                Long.getLong("y.model.cacheMaxBytes", 32L * 1024 * 1024));
+    }
+}
@@ -3,8 +3,6 @@ package model;
 import lombok.*;
 
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 @Getter
 @Setter
@@ -15,16 +13,20 @@ public class Post {
     private int userId;
     private String text;
     private int likes;
-    private Set<Integer> likedByUserIds;
+    private IntSet likedByUserIds;
+    @EqualsAndHashCode.Exclude
+    private boolean likesLoaded;
     private Date datePosted;
 
     public Post(int userId, String text) {
-        nextId = UserSystem.getInstance().getAllPosts().size() + 1;
+        nextId = UserSystem.getInstance().getPostCount() + 1;
         this.id = nextId++;
         this.userId = userId;
         this.text = text;
         this.likes = 0;
-        this.likedByUserIds = new HashSet<>();
+        this.likedByUserIds = new IntSet();
+        // A new post has no likes to read from the database
+        this.likesLoaded = true;
         this.datePosted = new Date();
         // id, dateposted handled in database
     }
@@ -34,17 +36,47 @@ public class Post {
         this.userId = userId;
         this.text = text;
         this.likes = likes;
-        this.likedByUserIds = new HashSet<>();
+        this.likedByUserIds = new IntSet();
         this.datePosted = datePosted;
     }
 
     /**
-     * Updates the number of likes on the post by setting it to the current size
-     * of the set containing user IDs who have liked the post. This method is used
-     * to synchronize the like count variable with the actual number of unique
-     * users who have expressed a like for the post.
+     * Replaces the IDs of the users who liked the post with the set read from the database and
+     * marks them as loaded. The like count is left alone, since it is kept by the numLikes column.
+     *
+     * @param likedByUserIds the IDs of every user who liked the post
      */
-    public void likeUnlike() {
-        likes = likedByUserIds.size();
+    public void loadLikedByUserIds(IntSet likedByUserIds) {
+        this.likedByUserIds = likedByUserIds;
+        this.likesLoaded = true;
+    }
+
+    /**
+     * Records a like from the given user and bumps the like count by one, without
+     * recounting the whole set of users who liked the post.
+     *
+     * @param userId the ID of the user liking the post
+     * @return true if the user had not liked the post yet
+     */
+    public boolean like(int userId) {
+        if (likedByUserIds.add(userId)) {
+            likes++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the like of the given user and lowers the like count by one.
+     *
+     * @param userId the ID of the user unliking the post
+     * @return true if the user had liked the post
+     */
+    public boolean unlike(int userId) {
+        if (likedByUserIds.remove(userId)) {
+            likes = Math.max(0, likes - 1);
+            return true;
+        }
+        return false;
     }
 }
@@ -1,17 +1,55 @@
 package model;
 
 import controller.DatabaseController;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Getter
 @Setter
 public class ReportSystem {
-    private List<AdminAccount> adminAccounts;
-    private List<UserReport> userReports;
-    private List<PostReport> postReports;
+    // Copy-on-write, so the interface iterates a consistent snapshot while background tasks add and remove reports
+    private volatile List<AdminAccount> adminAccounts = new CopyOnWriteArrayList<>();
+    private volatile List<UserReport> userReports = new CopyOnWriteArrayList<>();
+    private volatile List<PostReport> postReports = new CopyOnWriteArrayList<>();
+
+    // Lookup indexes over adminAccounts, kept in sync by addAdmin and setAdminAccounts. Reads take no lock
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<Integer, AdminAccount> adminsById = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, AdminAccount> adminsByUsername = new ConcurrentHashMap<>();
+
+    // Lazy mode: admins and single reports are fetched on demand into these weight-bounded caches,
+    // and the report lists on first use
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LoadingConfig loading = LoadingConfig.defaults();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EntityCache<Integer, AdminAccount> cachedAdmins =
+            new EntityCache<>("admins", loading.cacheMaxWeight(), EntityWeigher::weigh);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EntityCache<String, Integer> cachedAdminIds =
+            new EntityCache<>("admin usernames", loading.cacheMaxWeight(), id -> EntityWeigher.USERNAME_ENTRY);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EntityCache<Integer, UserReport> cachedUserReports =
+            new EntityCache<>("user reports", loading.cacheMaxWeight(), EntityWeigher::weigh);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EntityCache<Integer, PostReport> cachedPostReports =
+            new EntityCache<>("post reports", loading.cacheMaxWeight(), EntityWeigher::weigh);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile boolean reportsLoaded = false;
 
     /**
      * Represents the currently authenticated admin within the system.
@@ -19,7 +57,7 @@ public class ReportSystem {
      * {@link ReportSystem#authenticateAdmin(String, String)} method.
      * It is utilized to track which admin user is currently managing the system's reports and operations.
      */
-    private AdminAccount currentAdmin = null;
+    private volatile AdminAccount currentAdmin = null;
     /**
      * The singleton instance of the ReportSystem class.
      * This static field ensures that only one instance of the ReportSystem is created
@@ -33,12 +71,18 @@ public class ReportSystem {
      * This constructor is private to prevent instantiation from outside the class,
      * ensuring the use of the singleton pattern.
      * It initializes the adminAccounts, userReports, and postReports lists
-     * with the data retrieved from the database using the DatabaseController.
+     * with the data read from the database by the {@link BootstrapLoader}.
+     * In lazy loading mode admins are looked up when needed and the reports are
+     * read the first time they are listed.
      */
     private ReportSystem() {
-        this.adminAccounts = DatabaseController.selectAllAdmins();
-        this.userReports = DatabaseController.selectAllUserReports();
-        this.postReports = DatabaseController.selectAllPostReports();
+        if (!loading.lazy()) {
+            BootstrapLoader.Snapshot snapshot = BootstrapLoader.await();
+            setAdminAccounts(snapshot.admins());
+            setUserReports(snapshot.userReports());
+            setPostReports(snapshot.postReports());
+            reportsLoaded = true;
+        }
     }
 
     /**
@@ -59,6 +103,183 @@ public class ReportSystem {
         return instance;
     }
 
+    /**
+     * Replaces the admin accounts and rebuilds the id and username indexes.
+     *
+     * @param adminAccounts the admin accounts of the system, copied into a copy-on-write list
+     */
+    public synchronized void setAdminAccounts(List<AdminAccount> adminAccounts) {
+        this.adminAccounts = new CopyOnWriteArrayList<>(adminAccounts);
+        adminsById.clear();
+        adminsByUsername.clear();
+        for (AdminAccount admin : adminAccounts) {
+            index(admin);
+        }
+    }
+
+    /**
+     * @return the user reports of the system, read from the database on first use in lazy loading mode
+     */
+    public List<UserReport> getUserReports() {
+        loadReports();
+        return userReports;
+    }
+
+    /**
+     * @return the post reports of the system, read from the database on first use in lazy loading mode
+     */
+    public List<PostReport> getPostReports() {
+        loadReports();
+        return postReports;
+    }
+
+    /**
+     * Adds a new user report to the list of user reports. In lazy loading mode the report is
+     * only added if the reports have already been read; otherwise it is read with them from
+     * the database once it has been inserted.
+     *
+     * @param userReport the report to add
+     */
+    public void addUserReport(UserReport userReport) {
+        if (reportsLoaded) {
+            userReports.add(userReport);
+        }
+    }
+
+    /**
+     * Adds a new post report to the list of post reports. In lazy loading mode the report is
+     * only added if the reports have already been read.
+     *
+     * @param postReport the report to add
+     */
+    public void addPostReport(PostReport postReport) {
+        if (reportsLoaded) {
+            postReports.add(postReport);
+        }
+    }
+
+    /**
+     * Removes a report from its list and from the report caches, e.g. once it has been deleted.
+     *
+     * @param report the user or post report to remove
+     */
+    public void removeReport(Report report) {
+        if (report instanceof UserReport userReport) {
+            userReports.remove(userReport);
+            cachedUserReports.invalidate(userReport.getId());
+        } else if (report instanceof PostReport postReport) {
+            postReports.remove(postReport);
+            cachedPostReports.invalidate(postReport.getId());
+        }
+    }
+
+    /**
+     * Writes a change made to a report, such as a new status, through to its cache entry.
+     * Does nothing in eager mode or if the report is not cached.
+     *
+     * @param report the user or post report that changed
+     */
+    public void updateReport(Report report) {
+        if (!loading.lazy()) {
+            return;
+        }
+        if (report instanceof UserReport userReport && cachedUserReports.get(userReport.getId()) == userReport) {
+            cachedUserReports.put(userReport.getId(), userReport);
+        } else if (report instanceof PostReport postReport && cachedPostReports.get(postReport.getId()) == postReport) {
+            cachedPostReports.put(postReport.getId(), postReport);
+        }
+    }
+
+    /**
+     * Retrieves a user report by its unique identifier.
+     *
+     * @param reportId the unique identifier of the report
+     * @return the matching user report, or null if there is none
+     */
+    public UserReport getUserReportById(int reportId) {
+        return findReport(UserReport.class, cachedUserReports, userReports, reportId);
+    }
+
+    /**
+     * Retrieves a post report by its unique identifier.
+     *
+     * @param reportId the unique identifier of the report
+     * @return the matching post report, or null if there is none
+     */
+    public PostReport getPostReportById(int reportId) {
+        return findReport(PostReport.class, cachedPostReports, postReports, reportId);
+    }
+
+    /**
+     * Looks a report up in its list once the reports have been read, or through the cache and
+     * an indexed lookup in the database before that in lazy loading mode.
+     */
+    private <T extends Report> T findReport(Class<T> reportClass, EntityCache<Integer, T> cache, List<T> reports, int reportId) {
+        T report = loading.lazy() ? cache.get(reportId) : null;
+        if (report != null) {
+            return report;
+        }
+        if (reportsLoaded) {
+            report = reports.stream().filter(candidate -> candidate.getId() == reportId).findFirst().orElse(null);
+        } else {
+            List<T> found = DatabaseController.selectReportRecord(reportClass, "id", reportId);
+            report = found.isEmpty() ? null : found.getFirst();
+        }
+        if (report != null && loading.lazy()) {
+            report = cache.putIfAbsent(reportId, report);
+        }
+        return report;
+    }
+
+    private void loadReports() {
+        if (!reportsLoaded) {
+            synchronized (this) {
+                if (!reportsLoaded) {
+                    setUserReports(DatabaseController.selectAllUserReports());
+                    setPostReports(DatabaseController.selectAllPostReports());
+                    reportsLoaded = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the user reports.
+     *
+     * @param userReports the user reports of the system, copied into a copy-on-write list
+     */
+    public void setUserReports(List<UserReport> userReports) {
+        this.userReports = new CopyOnWriteArrayList<>(userReports);
+    }
+
+    /**
+     * Replaces the post reports.
+     *
+     * @param postReports the post reports of the system, copied into a copy-on-write list
+     */
+    public void setPostReports(List<PostReport> postReports) {
+        this.postReports = new CopyOnWriteArrayList<>(postReports);
+    }
+
+    /**
+     * Adds an admin account to the system and its indexes. The account must already have its ID.
+     *
+     * @param adminAccount the admin account to add
+     */
+    public synchronized void addAdmin(AdminAccount adminAccount) {
+        if (loading.lazy()) {
+            cacheAdmin(adminAccount);
+            return;
+        }
+        adminAccounts.add(adminAccount);
+        index(adminAccount);
+    }
+
+    private void index(AdminAccount admin) {
+        adminsById.put(admin.getId(), admin);
+        adminsByUsername.putIfAbsent(admin.getUsername(), admin);
+    }
+
     /**
      * Authenticates an administrator by checking if the provided username and password
      * match any of the existing admin accounts in the system.
@@ -68,15 +289,12 @@ public class ReportSystem {
      * @return true if the credentials match an existing admin account, false otherwise
      */
     public boolean authenticateAdmin(String username, String password) {
-        boolean success = false;
-        for (AdminAccount admin : getInstance().adminAccounts) {
-            if (admin.getUsername().equals(username) && admin.getPassword().equals(password)) {
-                success = true;
-                currentAdmin = admin;
-                break;
-            }
+        AdminAccount admin = getAdminByUsername(username);
+        if (admin != null && admin.getPassword().equals(password)) {
+            currentAdmin = admin;
+            return true;
         }
-        return success;
+        return false;
     }
 
     /**
@@ -86,12 +304,73 @@ public class ReportSystem {
      * @return true if an admin account with the given username exists, false otherwise
      */
     public boolean adminAccountExists(String username) {
-        boolean exists = false;
-        for (AdminAccount admin : adminAccounts) {
-            if (admin.getUsername().equals(username)) {
-                exists = true;
+        return getAdminByUsername(username) != null;
+    }
+
+    /**
+     * Retrieves an admin account by its unique identifier.
+     *
+     * @param adminId the unique identifier of the admin
+     * @return the matching admin account, or null if there is none
+     */
+    public AdminAccount getAdminById(int adminId) {
+        AdminAccount admin = adminsById.get(adminId);
+        if (admin == null && loading.lazy()) {
+            admin = cachedAdmins.get(adminId);
+            if (admin == null) {
+                admin = fetchAdmin("id", adminId);
+            }
+        }
+        return admin;
+    }
+
+    /**
+     * Retrieves an admin account by its username.
+     *
+     * @param username the username of the admin
+     * @return the matching admin account, or null if there is none
+     */
+    public AdminAccount getAdminByUsername(String username) {
+        AdminAccount admin = adminsByUsername.get(username);
+        if (admin == null && loading.lazy()) {
+            Integer adminId = cachedAdminIds.get(username);
+            admin = adminId == null ? null : cachedAdmins.get(adminId);
+            if (admin == null) {
+                admin = fetchAdmin("username", username);
             }
         }
-        return exists;
+        return admin;
+    }
+
+    /**
+     * Reads one admin account from the database through its indexed column and caches it.
+     *
+     * @param column the unique column to match, id or username
+     * @param value the value to match
+     * @return the admin account, or null if there is none
+     */
+    private AdminAccount fetchAdmin(String column, Object value) {
+        List<AdminAccount> found = DatabaseController.selectAdminRecord(column, value);
+        return found.isEmpty() ? null : cacheAdmin(found.getFirst());
+    }
+
+    /**
+     * Caches an admin account in lazy loading mode, keeping the cached instance if there is one.
+     *
+     * @param admin the admin account read from the database
+     * @return the cached instance of the account
+     */
+    private AdminAccount cacheAdmin(AdminAccount admin) {
+        AdminAccount cached = cachedAdmins.putIfAbsent(admin.getId(), admin);
+        cachedAdminIds.put(cached.getUsername(), cached.getId());
+        return cached;
+    }
+
+    /**
+     * @return the statistics of the admin, admin username and report caches of lazy loading mode
+     */
+    public List<EntityCache.Stats> getCacheStats() {
+        return List.of(cachedAdmins.getStats(), cachedAdminIds.getStats(),
+                cachedUserReports.getStats(), cachedPostReports.getStats());
     }
 }
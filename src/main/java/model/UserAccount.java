@@ -3,14 +3,15 @@ package model;
 import lombok.*;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Getter
 @Setter
 public class UserAccount extends Account {
-    private Set<Integer> followerids;
+    private IntSet followerids;
+    private boolean followersLoaded;
+    private IntSet followeeids;
+    private boolean followeesLoaded;
     private int followerCount;
     private List<Post> posts;
 
@@ -19,13 +20,15 @@ public class UserAccount extends Account {
     public UserAccount(int id, String name, String email, String username, String password, int followerCount) {
         super(id, name, email, username, password);
         this.followerCount = followerCount;
-        this.followerids = new HashSet<>();
+        this.followerids = new IntSet();
+        this.followeeids = new IntSet();
         this.posts = new ArrayList<>();
     }
 
     public UserAccount(String name, String email, String username, String password) {
         super(name, email, username, password);
-        this.followerids = new HashSet<>();
+        this.followerids = new IntSet();
+        this.followeeids = new IntSet();
         this.posts = new ArrayList<>();
     }
 
@@ -39,22 +42,63 @@ public class UserAccount extends Account {
     }
 
     /**
-     * Updates the follower count of the user account to reflect the current size
-     * of the set of follower IDs. This method should be called whenever the
-     * list of followers is modified to ensure the follower count remains accurate.
+     * Replaces the follower IDs with the set read from the database and marks them as loaded.
+     * The follower count is left alone, since it is kept by the numFollowers column.
+     *
+     * @param followerids the IDs of every user following this account
+     */
+    public void loadFollowerids(IntSet followerids) {
+        this.followerids = followerids;
+        this.followersLoaded = true;
+    }
+
+    /**
+     * Replaces the IDs of the accounts this user follows with the set read from the database
+     * and marks them as loaded.
+     *
+     * @param followeeids the IDs of every user this account follows
+     */
+    public void loadFolloweeids(IntSet followeeids) {
+        this.followeeids = followeeids;
+        this.followeesLoaded = true;
+    }
+
+    /**
+     * Records a new follower and bumps the follower count by one, without
+     * recounting the whole set of follower IDs.
+     *
+     * @param followerId the ID of the user following this account
+     * @return true if the user was not following this account yet
+     */
+    public boolean addFollower(int followerId) {
+        if (followerids.add(followerId)) {
+            followerCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a follower and lowers the follower count by one.
+     *
+     * @param followerId the ID of the user unfollowing this account
+     * @return true if the user was following this account
      */
-    public void followUnfollow() {
-        followerCount = followerids.size();
+    public boolean removeFollower(int followerId) {
+        if (followerids.remove(followerId)) {
+            followerCount = Math.max(0, followerCount - 1);
+            return true;
+        }
+        return false;
     }
 
     /**
-     * User creates a post and adds it to its list of posts
+     * User creates a post. The post joins the user's list of posts once it is added to the UserSystem,
+     * which keeps that list sorted by date posted
      * @param text text of post
      */
     public Post post(String text) {
-        Post post = new Post(this.getId(), text);
-        posts.add(post);
-        return post;
+        return new Post(this.getId(), text);
     }
 
     /**
@@ -1,20 +1,77 @@
 package model;
 
 import controller.DatabaseController;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 @Setter
 @EqualsAndHashCode
 public class UserSystem {
-    private List<UserAccount> userAccounts;
-    private UserAccount currentUser;
-    private List<Post> allPosts = DatabaseController.selectAllPosts();
+    private volatile UserAccount currentUser;
+
+    // Lookup indexes over the user accounts and posts, kept in sync by the add and remove methods below.
+    // Writers hold the lock of the UserSystem so the indexes change together; reads take no lock
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Map<Integer, UserAccount> usersById = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Map<String, UserAccount> usersByUsername = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Map<Integer, Post> postsById = new ConcurrentHashMap<>();
+    // Posts of each author, oldest first, shared with UserAccount.posts. Each timeline is an immutable
+    // list that writers replace under the lock, so readers such as the feed merge take the current one
+    // without locking and never hold up a write, nor wait for one
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Map<Integer, List<Post>> postsByAuthor = new ConcurrentHashMap<>();
+    // Prefix and trigram index of the usernames of the user accounts, searched by searchUsers
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final UsernameIndex usernameIndex = new UsernameIndex();
+
+    // Lazy mode: nothing is preloaded, and accounts and posts are fetched on demand into these weight-bounded caches
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final LoadingConfig loading = LoadingConfig.defaults();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final EntityCache<Integer, UserAccount> cachedUsers =
+            new EntityCache<>("users", loading.cacheMaxWeight(), EntityWeigher::weigh);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final EntityCache<String, Integer> cachedUserIds =
+            new EntityCache<>("usernames", loading.cacheMaxWeight(), id -> EntityWeigher.USERNAME_ENTRY);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final EntityCache<Integer, Post> cachedPosts =
+            new EntityCache<>("posts", loading.cacheMaxWeight(), EntityWeigher::weigh);
+
+    static final Comparator<Post> POSTED_ORDER =
+            Comparator.comparing(Post::getDatePosted).thenComparingInt(Post::getId);
 
     /**
      * Singleton instance of the UserSystem class. It ensures that only one instance
@@ -26,11 +83,16 @@ public class UserSystem {
 
     /**
      * Initializes a new instance of the UserSystem class. This constructor is
-     * private to enforce the singleton pattern. It loads all user accounts
-     * from the database and sets the current user to null.
+     * private to enforce the singleton pattern. It takes all user accounts and posts, with their
+     * follows and likes, from the {@link BootstrapLoader}, indexes them and sets the current user
+     * to null. In lazy loading mode nothing is read until it is looked up.
      */
     private UserSystem() {
-        this.userAccounts = DatabaseController.selectAllUsers();
+        if (!loading.lazy()) {
+            BootstrapLoader.Snapshot snapshot = BootstrapLoader.await();
+            setAllPosts(snapshot.posts());
+            setUserAccounts(snapshot.users());
+        }
         currentUser = null;
     }
 
@@ -52,72 +114,436 @@ public class UserSystem {
         return instance;
     }
 
+    /**
+     * Returns the user accounts held in memory, read from the id index rather than kept in a
+     * list of their own, so that adding or removing an account costs nothing extra. Empty in
+     * lazy loading mode, where accounts are looked up when needed.
+     *
+     * @return a snapshot of the user accounts, in no particular order
+     */
+    public List<UserAccount> getUserAccounts() {
+        return List.copyOf(usersById.values());
+    }
+
+    /**
+     * @return the number of posts held in memory, 0 in lazy loading mode
+     */
+    public int getPostCount() {
+        return postsById.size();
+    }
+
+    /**
+     * Replaces the user accounts and rebuilds the id, username and search indexes.
+     *
+     * @param userAccounts the user accounts of the system
+     */
+    public synchronized void setUserAccounts(List<UserAccount> userAccounts) {
+        usersById.clear();
+        usersByUsername.clear();
+        usernameIndex.clear();
+        for (UserAccount user : userAccounts) {
+            index(user);
+        }
+    }
+
+    /**
+     * Replaces the posts and rebuilds the id and author indexes.
+     *
+     * @param allPosts the posts of the system
+     */
+    public synchronized void setAllPosts(List<Post> allPosts) {
+        postsById.clear();
+        Map<Integer, List<Post>> timelines = new HashMap<>();
+        for (int authorId : postsByAuthor.keySet()) {
+            timelines.put(authorId, new ArrayList<>());
+        }
+        for (Post post : allPosts) {
+            postsById.put(post.getId(), post);
+            timelines.computeIfAbsent(post.getUserId(), id -> new ArrayList<>()).add(post);
+        }
+        timelines.forEach((authorId, posts) -> {
+            posts.sort(POSTED_ORDER);
+            setTimeline(authorId, posts);
+        });
+    }
+
+    /**
+     * Adds a user account to the system and its indexes. The account must already have its ID.
+     *
+     * @param userAccount the user account to add
+     */
+    public synchronized void addUser(UserAccount userAccount) {
+        if (loading.lazy()) {
+            cacheUser(userAccount);
+            return;
+        }
+        index(userAccount);
+    }
+
+    /**
+     * Removes a user account from the system and its indexes, e.g. when it is banned.
+     *
+     * @param userAccount the user account to remove
+     */
+    public synchronized void removeUser(UserAccount userAccount) {
+        usersById.remove(userAccount.getId(), userAccount);
+        if (usersByUsername.remove(userAccount.getUsername(), userAccount)) {
+            usernameIndex.remove(userAccount.getId());
+        }
+        cachedUsers.invalidate(userAccount.getId());
+        cachedUserIds.invalidate(userAccount.getUsername());
+    }
+
+    /**
+     * Adds a post to the system and its indexes. The post must already have its ID.
+     *
+     * @param post the post to add
+     */
+    public synchronized void addPost(Post post) {
+        if (loading.lazy()) {
+            cachedPosts.put(post.getId(), post);
+            return;
+        }
+        postsById.put(post.getId(), post);
+
+        // New posts are nearly always the newest, so the insertion point is found from the end
+        List<Post> posts = new ArrayList<>(getTimeline(post.getUserId()));
+        int index = posts.size();
+        while (index > 0 && POSTED_ORDER.compare(posts.get(index - 1), post) > 0) {
+            index--;
+        }
+        posts.add(index, post);
+        setTimeline(post.getUserId(), posts);
+    }
+
+    /**
+     * Removes a post from the system and its indexes.
+     *
+     * @param post the post to remove
+     */
+    public synchronized void removePost(Post post) {
+        postsById.remove(post.getId(), post);
+        cachedPosts.invalidate(post.getId());
+        List<Post> timeline = postsByAuthor.get(post.getUserId());
+        if (timeline != null && timeline.contains(post)) {
+            List<Post> posts = new ArrayList<>(timeline);
+            posts.remove(post);
+            setTimeline(post.getUserId(), posts);
+        }
+    }
+
+    private void index(UserAccount user) {
+        usersById.put(user.getId(), user);
+        // Usernames are unique in the database; keep the first account if memory disagrees
+        if (usersByUsername.putIfAbsent(user.getUsername(), user) == null) {
+            usernameIndex.add(user.getId(), user.getUsername());
+        }
+        user.setPosts(postsByAuthor.computeIfAbsent(user.getId(), id -> List.of()));
+    }
+
+    /**
+     * @param userId the ID of an author
+     * @return true if the posts of the author are held in memory
+     */
+    boolean isResident(int userId) {
+        return postsByAuthor.containsKey(userId);
+    }
+
+    /**
+     * Returns the current timeline of an author, oldest first. The list is an immutable snapshot,
+     * so it can be read without holding the lock of the UserSystem while posts are added and removed.
+     *
+     * @param userId the ID of the author
+     * @return the author's posts, oldest first, or an empty list if the author has none
+     */
+    List<Post> getTimeline(int userId) {
+        List<Post> posts = postsByAuthor.get(userId);
+        return posts == null ? Collections.emptyList() : posts;
+    }
+
+    /**
+     * Publishes a new timeline of an author, to the readers of the author index and to the account.
+     * Called while holding the lock of the UserSystem.
+     */
+    private void setTimeline(int userId, List<Post> posts) {
+        List<Post> timeline = List.copyOf(posts);
+        postsByAuthor.put(userId, timeline);
+        UserAccount user = usersById.get(userId);
+        if (user != null) {
+            user.setPosts(timeline);
+        }
+    }
+
     /**
      * Authenticates a user by checking if the provided username and password match
-     * any existing user accounts. If authentication is*/
+     * an existing user account. If authentication is successful, that account becomes
+     * the current user.
+     *
+     * @param username the username of the user attempting to log in
+     * @param password the password associated with the provided username
+     * @return true if the credentials match an existing user account, false otherwise
+     */
     public boolean authenticateUser(String username, String password) {
-        boolean success = false;
-        for (UserAccount user : getInstance().userAccounts) {
-            if (user.getUsername().equals(username) && user.getPassword().equals(password)) {
-                success = true;
-                currentUser = user;
-                break;
-            }
+        UserAccount user = getUserByUsername(username);
+        if (user != null && user.getPassword().equals(password)) {
+            currentUser = user;
+            return true;
         }
-        return success;
+        return false;
     }
 
     /**
      * Checks if a user account with the specified username exists in the system.
      *
-     * @param username the*/
+     * @param username the username of the user account to be checked
+     * @return true if a user account with the given username exists, false otherwise
+     */
     public boolean userAccountExists(String username) {
-        boolean exists = false;
-        for (UserAccount user : userAccounts) {
-            if (user.getUsername().equals(username)) {
-                exists = true;
-            }
-        }
-        return exists;
+        return getUserByUsername(username) != null;
     }
 
     /**
-     * Retrieves a list of posts authored by the specified user account.
+     * Retrieves the posts authored by the specified user account, newest first. The posts
+     * come from the author index, so this costs O(posts of the user) rather than O(all posts).
+     * In lazy loading mode they are read from the database instead.
      *
-     **/
+     * @param userAccount the author of the posts
+     * @return a copy of the user's posts sorted by date posted, newest first
+     */
     public List<Post> getPostsByUser(UserAccount userAccount) {
-        List<Post> posts = new ArrayList<>();
-        for (Post post : allPosts) {
-            if (post.getUserId() == userAccount.getId()) {
-                posts.add(post);
-            }
+        if (loading.lazy()) {
+            List<Post> posts = new ArrayList<>(DatabaseController.selectAllPosts(userAccount).stream()
+                    .map(this::cachePost).toList());
+            posts.sort(POSTED_ORDER.reversed());
+            return posts;
         }
-        return posts;
+        return new ArrayList<>(getTimeline(userAccount.getId()).reversed());
     }
 
     /**
      * Retrieves a UserAccount object that matches the given user ID.
      *
-     * @param userId the unique identifier of the user to be retrieved*/
+     * @param userId the unique identifier of the user to be retrieved
+     * @return the matching user account, or null if there is none
+     */
     public UserAccount getUserById(int userId) {
-        for (UserAccount user : userAccounts) {
-            if (user.getId() == userId) {
-                return user;
+        UserAccount user = usersById.get(userId);
+        if (user == null && loading.lazy()) {
+            user = cachedUsers.get(userId);
+            if (user == null) {
+                user = fetchUser("id", userId);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Looks up the authors of some posts, e.g. before a page of posts is shown. Each author is
+     * looked up once, and may be read from the database in lazy loading mode, so this is called
+     * off the JavaFX Application Thread.
+     *
+     * @param posts the posts whose authors to look up
+     * @return the authors found, by user ID; accounts that no longer exist are left out
+     */
+    public Map<Integer, UserAccount> getAuthors(Collection<Post> posts) {
+        Map<Integer, UserAccount> authors = new HashMap<>();
+        for (Post post : posts) {
+            if (!authors.containsKey(post.getUserId())) {
+                UserAccount author = getUserById(post.getUserId());
+                if (author != null) {
+                    authors.put(author.getId(), author);
+                }
+            }
+        }
+        return authors;
+    }
+
+    /**
+     * Retrieves a user account by its username.
+     *
+     * @param username the username of the user
+     * @return the matching user account, or null if there is none
+     */
+    public UserAccount getUserByUsername(String username) {
+        UserAccount user = usersByUsername.get(username);
+        if (user == null && loading.lazy()) {
+            Integer userId = cachedUserIds.get(username);
+            user = userId == null ? null : cachedUsers.get(userId);
+            if (user == null) {
+                user = fetchUser("username", username);
             }
         }
-        return null;
+        return user;
+    }
+
+    /**
+     * Searches the first {@link UsernameIndex#DEFAULT_LIMIT} user accounts matching the given text.
+     *
+     * @param text the text to search for
+     * @return the matching user accounts
+     * @see #searchUsers(String, int)
+     */
+    public List<UserAccount> searchUsers(String text) {
+        return searchUsers(text, UsernameIndex.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Searches the user accounts whose username starts with the given text, or contains it if it
+     * is at least three characters long, ignoring case. Accounts whose username starts with the
+     * text come first, each group in alphabetical order. The search reads an index of the
+     * usernames instead of every account; in lazy loading mode it reads the index of the
+     * database, since only part of the accounts are held in memory.
+     *
+     * @param text the text to search for
+     * @param limit the most accounts to return
+     * @return the matching user accounts
+     */
+    public List<UserAccount> searchUsers(String text, int limit) {
+        if (text.isBlank()) {
+            return List.of();
+        }
+        if (loading.lazy()) {
+            return DatabaseController.selectUserAccountSearchResults(text, limit).stream().map(this::cacheUser).toList();
+        }
+        return usernameIndex.search(text, limit).stream().map(usersById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Lists the first user accounts in alphabetical order of their usernames, ignoring case, e.g.
+     * to show before anything is searched. Only those accounts are read, from the index of the
+     * usernames, or from the database in lazy loading mode, since only part of the accounts are
+     * held in memory.
+     *
+     * @param limit the most accounts to return
+     * @return the first user accounts
+     */
+    public List<UserAccount> getFirstUsers(int limit) {
+        if (loading.lazy()) {
+            return DatabaseController.selectFirstUserAccounts(limit).stream().map(this::cacheUser).toList();
+        }
+        return usernameIndex.head(limit).stream().map(usersById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * One page of the posts found by {@link #searchPosts(String, int, int)}, best match first.
+     *
+     * @param posts the posts of the page
+     * @param nextOffset the offset of the next page, or -1 if this is the last page
+     */
+    public record SearchPage(List<Post> posts, int nextOffset) {
+        /**
+         * @return true if there are more results after this page
+         */
+        public boolean hasMore() {
+            return nextOffset >= 0;
+        }
+    }
+
+    /**
+     * Searches the content of posts with the full-text index of the database, so the cost
+     * depends on the number of matches rather than on the number of posts. The posts found are
+     * the instances held in memory, or cached in lazy loading mode.
+     *
+     * @param text the words to search for
+     * @param offset the offset of the page, 0 for the first one
+     * @param limit the most posts per page
+     * @return the page of posts, ranked by relevance
+     */
+    public SearchPage searchPosts(String text, int offset, int limit) {
+        List<Post> found = DatabaseController.searchPosts(text, offset, limit + 1);
+        boolean more = found.size() > limit;
+        List<Post> posts = found.stream().limit(limit).map(this::cachePost).toList();
+        return new SearchPage(posts, more ? offset + limit : -1);
     }
 
     /**
-     * Retrieves a post by its unique identifier from the list of all posts.
+     * Retrieves a post by its unique identifier.
      *
+     * @param postId the unique identifier of the post to be retrieved
+     * @return the matching post, or null if there is none
      */
     public Post getPostById(int postId) {
-        for (Post post : allPosts) {
-            if (post.getId() == postId) {
-                return post;
+        Post post = postsById.get(postId);
+        if (post == null && loading.lazy()) {
+            post = cachedPosts.get(postId);
+            if (post == null) {
+                List<Post> found = DatabaseController.selectPostRecord("id", postId);
+                post = found.isEmpty() ? null : cachePost(found.getFirst());
             }
         }
-        return null;
+        return post;
+    }
+
+    /**
+     * Reads one user account from the database through its indexed column and caches it.
+     *
+     * @param column the unique column to match, id or username
+     * @param value the value to match
+     * @return the user account, or null if there is none
+     */
+    private UserAccount fetchUser(String column, Object value) {
+        List<UserAccount> found = DatabaseController.selectUserRecord(column, value);
+        return found.isEmpty() ? null : cacheUser(found.getFirst());
+    }
+
+    /**
+     * Caches a user account read from the database in lazy loading mode. If the account is
+     * already cached, the cached instance is kept so that every reader shares it.
+     *
+     * @param user the user account read from the database
+     * @return the cached instance of the account
+     */
+    private UserAccount cacheUser(UserAccount user) {
+        UserAccount cached = cachedUsers.putIfAbsent(user.getId(), user);
+        cachedUserIds.put(cached.getUsername(), cached.getId());
+        return cached;
+    }
+
+    /**
+     * Writes a change made to a user account through to its cache entry, e.g. once followers
+     * have been loaded or added, so that the cache weighs it again. Does nothing in eager mode
+     * or if the account is not cached.
+     *
+     * @param userAccount the user account that changed
+     */
+    public void updateUser(UserAccount userAccount) {
+        if (loading.lazy() && cachedUsers.get(userAccount.getId()) == userAccount) {
+            cachedUsers.put(userAccount.getId(), userAccount);
+        }
+    }
+
+    /**
+     * Writes a change made to a post through to its cache entry, e.g. after a like, so that
+     * the cache weighs it again. Does nothing in eager mode or if the post is not cached.
+     *
+     * @param post the post that changed
+     */
+    public void updatePost(Post post) {
+        if (loading.lazy() && cachedPosts.get(post.getId()) == post) {
+            cachedPosts.put(post.getId(), post);
+        }
+    }
+
+    /**
+     * @return the statistics of the user, username and post caches of lazy loading mode
+     */
+    public List<EntityCache.Stats> getCacheStats() {
+        return List.of(cachedUsers.getStats(), cachedUserIds.getStats(), cachedPosts.getStats());
+    }
+
+    /**
+     * Caches a post read from the database in lazy loading mode, keeping the cached instance
+     * if there is one so that likes apply to the instance every reader shows. In eager mode the
+     * resident instance of the post is returned if there is one.
+     *
+     * @param post the post read from the database
+     * @return the shared instance of the post
+     */
+    Post cachePost(Post post) {
+        if (!loading.lazy()) {
+            Post resident = postsById.get(post.getId());
+            return resident != null ? resident : post;
+        }
+        return cachedPosts.putIfAbsent(post.getId(), post);
     }
 }
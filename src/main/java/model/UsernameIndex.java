@@ -0,0 +1,179 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An in-memory index of usernames for the user search, kept up to date as accounts are added
+ * and removed.
+ *
+ * Usernames are folded to lower case. A sorted map of the folded usernames answers prefix
+ * queries by reading only the matching range, and an inverted index from every trigram (run of
+ * three characters) of a username to the IDs of the accounts holding it answers substring
+ * queries by intersecting the posting lists of the trigrams of the query, starting with the
+ * shortest. Neither reads the usernames that cannot match, so a search costs about as much as
+ * the results it returns rather than the number of accounts.
+ *
+ * A query shorter than a trigram matches the start of usernames only; a longer query matches
+ * anywhere in them. Prefix matches always come first, in alphabetical order, followed by the
+ * other matches, also in alphabetical order.
+ */
+public class UsernameIndex {
+    /**
+     * The number of results returned by a search unless asked otherwise.
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    // Queries at least this long match anywhere in a username
+    private static final int GRAM = 3;
+
+    // IDs of the accounts by folded username. Usernames are unique, but two may fold alike
+    private final NavigableMap<String, IntSet> idsByUsername = new TreeMap<>();
+    private final Map<String, IntSet> idsByTrigram = new HashMap<>();
+    private final Map<Integer, String> usernamesById = new HashMap<>();
+
+    /**
+     * Indexes the username of an account.
+     *
+     * @param id the ID of the account
+     * @param username its username
+     */
+    public synchronized void add(int id, String username) {
+        String folded = fold(username);
+        String previous = usernamesById.put(id, folded);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        idsByUsername.computeIfAbsent(folded, key -> new IntSet()).add(id);
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            idsByTrigram.computeIfAbsent(folded.substring(i, i + GRAM), key -> new IntSet()).add(id);
+        }
+    }
+
+    /**
+     * Drops the username of an account from the index.
+     *
+     * @param id the ID of the account
+     */
+    public synchronized void remove(int id) {
+        String folded = usernamesById.remove(id);
+        if (folded != null) {
+            unindex(id, folded);
+        }
+    }
+
+    /**
+     * Empties the index.
+     */
+    public synchronized void clear() {
+        idsByUsername.clear();
+        idsByTrigram.clear();
+        usernamesById.clear();
+    }
+
+    /**
+     * Finds the accounts whose username starts with the query, or contains it if it is at
+     * least three characters long, ignoring case.
+     *
+     * @param query the text to search for
+     * @param limit the most IDs to return
+     * @return the IDs of the matching accounts, prefix matches first, each group in alphabetical order
+     */
+    public synchronized List<Integer> search(String query, int limit) {
+        String folded = fold(query);
+        List<Integer> results = new ArrayList<>();
+        IntSet found = new IntSet();
+
+        for (IntSet ids : idsByUsername.subMap(folded, true, folded + Character.MAX_VALUE, false).values()) {
+            for (int id : ids.toArray()) {
+                if (results.size() == limit) {
+                    return results;
+                }
+                results.add(id);
+                found.add(id);
+            }
+        }
+        if (folded.length() < GRAM || results.size() == limit) {
+            return results;
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        intersectTrigrams(folded).forEach(id -> {
+            if (!found.contains(id) && usernamesById.get(id).contains(folded)) {
+                matches.add(id);
+            }
+        });
+        matches.sort(Comparator.comparing((Integer id) -> usernamesById.get(id)).thenComparing(id -> id));
+        results.addAll(matches.subList(0, Math.min(matches.size(), limit - results.size())));
+        return results;
+    }
+
+    /**
+     * Lists the first accounts in alphabetical order of their usernames, reading only those.
+     *
+     * @param limit the most IDs to return
+     * @return the IDs of the first accounts
+     */
+    public synchronized List<Integer> head(int limit) {
+        List<Integer> results = new ArrayList<>(Math.min(limit, DEFAULT_LIMIT));
+        for (IntSet ids : idsByUsername.values()) {
+            for (int id : ids.toArray()) {
+                if (results.size() == limit) {
+                    return results;
+                }
+                results.add(id);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the IDs of the accounts whose username holds every trigram of the query
+     */
+    private IntSet intersectTrigrams(String folded) {
+        List<IntSet> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            IntSet ids = idsByTrigram.get(folded.substring(i, i + GRAM));
+            if (ids == null) {
+                return new IntSet();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(IntSet::size));
+
+        IntSet candidates = new IntSet();
+        postings.getFirst().forEach(id -> {
+            for (int i = 1; i < postings.size(); i++) {
+                if (!postings.get(i).contains(id)) {
+                    return;
+                }
+            }
+            candidates.add(id);
+        });
+        return candidates;
+    }
+
+    private void unindex(int id, String folded) {
+        removeId(idsByUsername, folded, id);
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            removeId(idsByTrigram, folded.substring(i, i + GRAM), id);
+        }
+    }
+
+    private static void removeId(Map<String, IntSet> index, String key, int id) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static String fold(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
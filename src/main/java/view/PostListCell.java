@@ -0,0 +1,105 @@
+package view;
+
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A reusable list cell that displays a post: a header, the text of the post, its like counter,
+ * a like button and one more action button (report or delete).
+ *
+ * The nodes of the cell are built once and only refilled when the ListView recycles the cell
+ * for another post, so the number of live nodes follows the number of visible rows rather than
+ * the number of posts. The like counter is bound to the post's view-model, so a like updates it
+ * without redrawing the list, and the buttons are disabled while an action on the post is
+ * pending. Styling comes from the shared classes of /css/feed.css.
+ */
+public class PostListCell extends ListCell<PostViewModel> {
+    private final Function<PostViewModel, String> headerText;
+
+    private final VBox postBox = new VBox();
+    private final Label headerLabel = new Label();
+    private final Label contentLabel = new Label();
+    private final Label counterLabel = new Label();
+    private final Button likeButton = new Button("👍");
+    private final Button actionButton;
+
+    private Runnable onLastItemShown;
+
+    /**
+     * Creates a cell whose buttons run the given actions on the post it currently shows.
+     *
+     * @param headerText builds the header of a post, e.g. its author and date
+     * @param onLike called when the like button is pressed
+     * @param actionText the text of the second button
+     * @param onAction called when the second button is pressed
+     */
+    public PostListCell(Function<PostViewModel, String> headerText, Consumer<PostViewModel> onLike,
+                        String actionText, Consumer<PostViewModel> onAction) {
+        this.headerText = headerText;
+
+        getStyleClass().add("post-cell");
+        postBox.getStyleClass().add("post-box");
+        headerLabel.getStyleClass().add("post-header");
+        contentLabel.getStyleClass().add("post-content");
+        contentLabel.setWrapText(true);
+        counterLabel.getStyleClass().add("post-counter");
+
+        likeButton.setOnAction(event -> {
+            if (getItem() != null) {
+                onLike.accept(getItem());
+            }
+        });
+        actionButton = new Button(actionText);
+        actionButton.setOnAction(event -> {
+            if (getItem() != null) {
+                onAction.accept(getItem());
+            }
+        });
+
+        HBox reactionBox = new HBox(counterLabel, likeButton, actionButton);
+        reactionBox.getStyleClass().add("post-reactions");
+        postBox.getChildren().addAll(headerLabel, contentLabel, reactionBox);
+
+        // Lets the cell follow the width of the list so that long posts wrap instead of scrolling sideways
+        setPrefWidth(0);
+    }
+
+    /**
+     * Sets the action run whenever the cell shows the last post of its list, which is the cue
+     * to fetch the next page of posts.
+     *
+     * @param onLastItemShown the action to run, or null for none
+     */
+    public void setOnLastItemShown(Runnable onLastItemShown) {
+        this.onLastItemShown = onLastItemShown;
+    }
+
+    @Override
+    protected void updateItem(PostViewModel item, boolean empty) {
+        super.updateItem(item, empty);
+        counterLabel.textProperty().unbind();
+        likeButton.disableProperty().unbind();
+        actionButton.disableProperty().unbind();
+        if (empty || item == null) {
+            setGraphic(null);
+            return;
+        }
+
+        headerLabel.setText(headerText.apply(item));
+        contentLabel.setText(item.getPost().getText());
+        counterLabel.textProperty().bind(item.likesProperty().asString());
+        likeButton.disableProperty().bind(item.pendingProperty());
+        actionButton.disableProperty().bind(item.pendingProperty());
+        setGraphic(postBox);
+
+        if (onLastItemShown != null && getIndex() == getListView().getItems().size() - 1) {
+            onLastItemShown.run();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package view;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import lombok.Getter;
+import model.Post;
+import model.UserAccount;
+
+/**
+ * Wraps a post for display, exposing the parts that change after it is shown as JavaFX
+ * properties. Cells bind to these properties, so liking a post only redraws its own counter,
+ * wherever the post is shown, instead of rebuilding the lists that contain it.
+ *
+ * The author of the post is looked up before the view-model is created, off the JavaFX
+ * Application Thread, since the lookup may read the database; cells only read it.
+ *
+ * The properties must only be updated on the JavaFX Application Thread.
+ */
+public class PostViewModel {
+    @Getter
+    private final Post post;
+    @Getter
+    private final UserAccount author;
+    private final IntegerProperty likes;
+    private final BooleanProperty pending;
+
+    /**
+     * Creates the view-model of a post, with its current number of likes.
+     *
+     * @param post the post to display
+     * @param author the author of the post, or null if the account no longer exists
+     */
+    public PostViewModel(Post post, UserAccount author) {
+        this.post = post;
+        this.author = author;
+        this.likes = new SimpleIntegerProperty(this, "likes", post.getLikes());
+        this.pending = new SimpleBooleanProperty(this, "pending", false);
+    }
+
+    /**
+     * @return the number of likes of the post, as last refreshed
+     */
+    public ReadOnlyIntegerProperty likesProperty() {
+        return likes;
+    }
+
+    /**
+     * @return true while an action on the post, such as a like, is being saved
+     */
+    public ReadOnlyBooleanProperty pendingProperty() {
+        return pending;
+    }
+
+    /**
+     * Marks the post as waiting for an action to be saved. Cells disable their buttons meanwhile.
+     *
+     * @param pending true when an action starts, false once it has completed
+     */
+    public void setPending(boolean pending) {
+        this.pending.set(pending);
+    }
+
+    /**
+     * Copies the current number of likes of the post into its property, which updates every
+     * cell bound to it.
+     */
+    public void refresh() {
+        likes.set(post.getLikes());
+    }
+}
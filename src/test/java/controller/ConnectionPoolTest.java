@@ -0,0 +1,113 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    private static ConnectionPool pool(int maxSize) {
+        ConnectionPool.Config config = new ConnectionPool.Config(maxSize, Duration.ofMillis(100),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), 2, 8);
+        return new ConnectionPool("jdbc:sqlite::memory:", new Properties(), config);
+    }
+
+    @Test
+    void reusesTheConnectionReturnedOnClose() throws Exception {
+        try (ConnectionPool pool = pool(2)) {
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE kept (id INTEGER)");
+            }
+            assertEquals(1, pool.getMetrics().idle());
+            assertEquals(0, pool.getMetrics().active());
+
+            // The same in-memory database, so the same physical connection
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM kept")) {
+                assertTrue(resultSet.next());
+                assertEquals(1, pool.getMetrics().active());
+            }
+            assertEquals(1, pool.getMetrics().created());
+            assertEquals(2, pool.getMetrics().checkouts());
+        }
+    }
+
+    @Test
+    void closingALeaseTwiceReturnsItOnce() throws Exception {
+        try (ConnectionPool pool = pool(1)) {
+            Connection connection = pool.getConnection();
+            connection.close();
+            connection.close();
+            assertTrue(connection.isClosed());
+            assertThrows(SQLException.class, connection::createStatement);
+
+            try (Connection first = pool.getConnection()) {
+                assertThrows(SQLTimeoutException.class, pool::getConnection);
+                assertFalse(first.isClosed());
+            }
+            assertEquals(1, pool.getMetrics().idle());
+        }
+    }
+
+    @Test
+    void boundsTheConnectionsCheckedOut() throws Exception {
+        try (ConnectionPool pool = pool(2)) {
+            Connection first = pool.getConnection();
+            Connection second = pool.getConnection();
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+            assertEquals(1, pool.getMetrics().timeouts());
+            assertEquals(2, pool.getMetrics().open());
+
+            first.close();
+            try (Connection third = pool.getConnection()) {
+                assertEquals(2, pool.getMetrics().active());
+                assertEquals(2, pool.getMetrics().created());
+            }
+            second.close();
+            assertEquals(2, pool.getMetrics().idle());
+        }
+    }
+
+    @Test
+    void rollsBackWhatALeaseLeftOpen() throws Exception {
+        try (ConnectionPool pool = pool(1)) {
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE items (id INTEGER)");
+                connection.setAutoCommit(false);
+                statement.executeUpdate("INSERT INTO items VALUES (1)");
+            }
+            try (ConnectionPool.CachingConnection connection = pool.getConnection()) {
+                assertTrue(connection.getAutoCommit());
+                PreparedStatement statement = connection.prepareCached("SELECT count(*) FROM items");
+                assertSame(statement, connection.prepareCached("SELECT count(*) FROM items"));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(0, resultSet.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void refusesCheckoutsOnceClosed() {
+        ConnectionPool pool = pool(1);
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+    }
+}
@@ -0,0 +1,120 @@
+package controller;
+
+import model.FeedEngine;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseControllerTest {
+
+    private static void createSchema(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : new String[] {
+                    DatabaseController.CREATE_ADMIN_TABLE, DatabaseController.CREATE_USER_TABLE,
+                    DatabaseController.CREATE_POST_TABLE, DatabaseController.CREATE_FOLLOW_TABLE,
+                    DatabaseController.CREATE_LIKE_TABLE, DatabaseController.CREATE_USER_REPORT_TABLE,
+                    DatabaseController.CREATE_POST_REPORT_TABLE}) {
+                statement.executeUpdate(sql);
+            }
+        }
+        DatabaseController.MIGRATIONS.migrate(connection);
+    }
+
+    @Test
+    void reportInsertWorksAfterMigrations() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            createSchema(connection);
+
+            Object[] params = {"spam", "OPEN", 1_700_000_000L, 1, 2};
+            String sql = DatabaseController.insertStatement("user_reports", DatabaseController.USER_REPORT_COLUMNS, params);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                assertEquals(1, statement.executeUpdate());
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT reporteeId, adminId FROM user_reports")) {
+                assertTrue(resultSet.next());
+                assertEquals(2, resultSet.getInt("reporteeId"));
+                resultSet.getInt("adminId");
+                assertTrue(resultSet.wasNull());
+            }
+        }
+    }
+
+    private record Row(int id, int userId, long datePosted) {}
+
+    @Test
+    void postsPageNeitherSkipsNorRepeatsPostsOfTheSameDate() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            createSchema(connection);
+
+            // Three authors posting at only three distinct seconds, the third author not followed
+            List<Row> expected = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO posts (userId, content, datePosted) VALUES (?, 'post', ?)")) {
+                for (int i = 1; i <= 30; i++) {
+                    int userId = 1 + i % 3;
+                    long datePosted = 1_700_000_000L + (i * 7) % 3;
+                    statement.setInt(1, userId);
+                    statement.setLong(2, datePosted);
+                    statement.executeUpdate();
+                    if (userId != 3) {
+                        expected.add(new Row(i, userId, datePosted));
+                    }
+                }
+            }
+            expected.sort(Comparator.comparingLong(Row::datePosted).thenComparingInt(Row::id).reversed());
+
+            for (int limit : new int[] {1, 2, 3, 7, 100}) {
+                List<Row> pages = new ArrayList<>();
+                FeedEngine.Cursor after = null;
+                while (true) {
+                    List<Row> page = postsPage(connection, List.of(1, 2), after, limit);
+                    pages.addAll(page);
+                    if (page.size() < limit) {
+                        break;
+                    }
+                    Row last = page.getLast();
+                    after = new FeedEngine.Cursor(new Date(last.datePosted() * 1000L), last.id());
+                }
+                assertEquals(expected, pages, "limit " + limit);
+            }
+        }
+    }
+
+    private static List<Row> postsPage(Connection connection, List<Integer> authorIds, FeedEngine.Cursor after,
+                                       int limit) throws Exception {
+        List<Object> params = new ArrayList<>(authorIds);
+        if (after != null) {
+            params.add(after.datePosted());
+            params.add(after.postId());
+        }
+        params.add(limit);
+
+        List<Row> rows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                DatabaseController.postsPageStatement(authorIds.size(), after != null))) {
+            DatabaseController.bind(statement, params.toArray());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(new Row(resultSet.getInt("id"), resultSet.getInt("userId"), resultSet.getLong("datePosted")));
+                }
+            }
+        }
+        return rows;
+    }
+}
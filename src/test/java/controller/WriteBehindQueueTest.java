@@ -0,0 +1,153 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+
+    // One connection, so every lease sees the same in-memory database
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite::memory:", new Properties(),
+                ConnectionPool.Config.defaults().withMaxSize(1));
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE items (id INTEGER PRIMARY KEY)");
+        }
+        return pool;
+    }
+
+    private static WriteBehindQueue.Mutation<Integer> insert(int id) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareCached("INSERT INTO items (id) VALUES (?)");
+            statement.setInt(1, id);
+            return statement.executeUpdate();
+        };
+    }
+
+    private static List<Integer> items(ConnectionPool pool) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id FROM items ORDER BY id")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt("id"));
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    void commitsQueuedMutationsInBatches() throws Exception {
+        try (ConnectionPool pool = pool();
+             WriteBehindQueue queue = new WriteBehindQueue(pool, new WriteBehindQueue.Config(3, Duration.ofMillis(500)))) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int id = 1; id <= 7; id++) {
+                futures.add(queue.submit(insert(id)));
+            }
+            queue.flush().get(5, TimeUnit.SECONDS);
+
+            for (CompletableFuture<Integer> future : futures) {
+                assertEquals(1, future.getNow(null));
+            }
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), items(pool));
+
+            // Seven inserts and the flush, at most three per transaction
+            WriteBehindQueue.Metrics metrics = queue.getMetrics();
+            assertEquals(8, metrics.mutations());
+            assertEquals(3, metrics.batches());
+            assertEquals(3, metrics.largestBatch());
+            assertEquals(0, metrics.failures());
+        }
+    }
+
+    @Test
+    void rollsBackOnlyTheFailingMutationOfABatch() throws Exception {
+        try (ConnectionPool pool = pool();
+             WriteBehindQueue queue = new WriteBehindQueue(pool, new WriteBehindQueue.Config(10, Duration.ofMillis(500)))) {
+            CompletableFuture<Integer> first = queue.submit(insert(1));
+            CompletableFuture<Integer> failing = queue.submit(connection -> {
+                insert(2).apply(connection);
+                // Fails on the duplicate key after inserting 2, which must be rolled back as well
+                return insert(1).apply(connection);
+            });
+            CompletableFuture<Integer> last = queue.submit(insert(3));
+            queue.awaitFlush(Duration.ofSeconds(5));
+
+            assertEquals(1, first.get());
+            assertEquals(1, last.get());
+            ExecutionException e = assertThrows(ExecutionException.class, failing::get);
+            assertInstanceOf(SQLException.class, e.getCause());
+            assertEquals(List.of(1, 3), items(pool));
+            assertEquals(1, queue.getMetrics().batches());
+            assertEquals(1, queue.getMetrics().failures());
+        }
+    }
+
+    @Test
+    void keepsWritingAfterAMutationThrowsAnError() throws Exception {
+        try (ConnectionPool pool = pool();
+             WriteBehindQueue queue = new WriteBehindQueue(pool, new WriteBehindQueue.Config(10, Duration.ofMillis(100)))) {
+            CompletableFuture<Integer> failing = queue.submit(connection -> {
+                insert(1).apply(connection);
+                throw new StackOverflowError();
+            });
+            CompletableFuture<Integer> next = queue.submit(insert(2));
+            queue.awaitFlush(Duration.ofSeconds(5));
+
+            ExecutionException e = assertThrows(ExecutionException.class, failing::get);
+            assertInstanceOf(StackOverflowError.class, e.getCause());
+            assertEquals(1, next.get());
+
+            // Still running for the batches after it
+            assertEquals(1, queue.submit(insert(3)).get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(2, 3), items(pool));
+        }
+    }
+
+    @Test
+    void flushWaitsForEveryEarlierMutation() throws Exception {
+        try (ConnectionPool pool = pool();
+             WriteBehindQueue queue = new WriteBehindQueue(pool, new WriteBehindQueue.Config(1, Duration.ZERO))) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int id = 1; id <= 20; id++) {
+                futures.add(queue.submit(insert(id)));
+            }
+            queue.awaitFlush(Duration.ofSeconds(5));
+
+            assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+            assertEquals(20, items(pool).size());
+            assertEquals(21, queue.getMetrics().batches());
+        }
+    }
+
+    @Test
+    void refusesMutationsOnceClosed() throws Exception {
+        try (ConnectionPool pool = pool()) {
+            WriteBehindQueue queue = new WriteBehindQueue(pool, WriteBehindQueue.Config.defaults());
+            CompletableFuture<Integer> queued = queue.submit(insert(1));
+            queue.close();
+
+            assertEquals(1, queued.get());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> queue.submit(insert(2)).get());
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(List.of(1), items(pool));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EntityCacheTest {
+
+    // Weighs a string by its length
+    private static EntityCache<Integer, String> cache(long maxWeight) {
+        return new EntityCache<>("test", maxWeight, String::length);
+    }
+
+    @Test
+    void reweighsAnEntityPutAgain() {
+        EntityCache<Integer, String> cache = cache(10);
+        cache.put(1, "aaa");
+        cache.put(2, "bb");
+        assertEquals(5, cache.getStats().weight());
+
+        cache.put(1, "a");
+        assertEquals(3, cache.getStats().weight());
+        assertEquals(2, cache.getStats().size());
+
+        // Growing the entity again evicts the least recently used other entry
+        cache.put(1, "aaaaaaaaa");
+        assertEquals(List.of("aaaaaaaaa"), cache.values());
+        assertEquals(9, cache.getStats().weight());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntriesFirst() {
+        EntityCache<Integer, String> cache = cache(6);
+        cache.put(1, "aa");
+        cache.put(2, "bb");
+        cache.put(3, "cc");
+        cache.get(1);
+
+        cache.put(4, "dd");
+        assertNull(cache.get(2));
+        assertEquals(List.of("cc", "aa", "dd"), cache.values());
+        assertEquals(6, cache.getStats().weight());
+    }
+
+    @Test
+    void keepsTheLastEntryEvenIfItOutweighsTheCache() {
+        EntityCache<Integer, String> cache = cache(4);
+        cache.put(1, "aa");
+        cache.put(2, "bbbbbbbb");
+
+        assertEquals(List.of("bbbbbbbb"), cache.values());
+        assertEquals(8, cache.getStats().weight());
+
+        cache.put(3, "c");
+        assertEquals(List.of("c"), cache.values());
+        assertEquals(1, cache.getStats().weight());
+        assertEquals(2, cache.getStats().evictions());
+    }
+
+    @Test
+    void sharesTheFirstInstanceCached() {
+        EntityCache<Integer, String> cache = cache(100);
+        String first = new String("same");
+        assertSame(first, cache.putIfAbsent(1, first));
+        assertSame(first, cache.putIfAbsent(1, new String("same")));
+        assertEquals(4, cache.getStats().weight());
+    }
+
+    @Test
+    void countsHitsMissesAndInvalidations() {
+        EntityCache<Integer, String> cache = cache(100);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        // An empty entity still weighs 1
+        cache.put(3, "");
+
+        cache.get(1);
+        cache.get(1);
+        cache.get(9);
+        cache.invalidate(2);
+        cache.invalidate(2);
+
+        EntityCache.Stats stats = cache.getStats();
+        assertEquals(new EntityCache.Stats("test", 2, 1, 0, 1, 2, 2, 100), stats);
+        assertEquals(2 / 3.0, stats.hitRate(), 1e-9);
+
+        cache.invalidateAll();
+        stats = cache.getStats();
+        assertEquals(3, stats.invalidations());
+        assertEquals(0, stats.size());
+        assertEquals(0, stats.weight());
+        assertEquals(0, cache(1).getStats().hitRate());
+    }
+}
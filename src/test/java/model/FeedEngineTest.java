@@ -0,0 +1,137 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedEngineTest {
+    private static final Set<Integer> FOLLOWED = Set.of(1, 2, 3, 5, 6);
+    // Authors whose timeline is held in memory; the others are read from the database
+    private static final Set<Integer> RESIDENT = Set.of(1, 2, 3, 4);
+
+    private static Post post(int id, int userId, long seconds) {
+        return new Post(id, userId, "post " + id, 0, new Date(seconds * 1000L));
+    }
+
+    /**
+     * Random posts of six authors, over so few dates that many of them share one.
+     */
+    private static List<Post> posts(long seed) {
+        Random random = new Random(seed);
+        List<Post> posts = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            posts.add(post(id, 1 + random.nextInt(6), 1_700_000_000L + random.nextInt(40)));
+        }
+        return posts;
+    }
+
+    /**
+     * The feed the engine must produce: the posts of the followed authors after the cursor, newest first.
+     */
+    private static List<Post> oracle(List<Post> posts, Set<Integer> authorIds, FeedEngine.Cursor after) {
+        return posts.stream()
+                .filter(post -> authorIds.contains(post.getUserId()))
+                .filter(post -> after == null || after.precedes(post))
+                .sorted(UserSystem.POSTED_ORDER.reversed())
+                .toList();
+    }
+
+    private static List<Post> timeline(List<Post> posts, int authorId) {
+        return posts.stream().filter(post -> post.getUserId() == authorId).sorted(UserSystem.POSTED_ORDER).toList();
+    }
+
+    /**
+     * Builds a page the way getFeed does: resident timelines are merged in memory, the other
+     * authors come from a database page of limit + 1 rows, simulated with the oracle.
+     */
+    private static FeedEngine.Page page(List<Post> posts, FeedEngine.Cursor after, int limit) {
+        List<List<Post>> timelines = FOLLOWED.stream().filter(RESIDENT::contains).map(id -> timeline(posts, id)).toList();
+        Set<Integer> missing = Set.copyOf(FOLLOWED.stream().filter(id -> !RESIDENT.contains(id)).toList());
+        List<Post> fetched = oracle(posts, missing, after).stream().limit(limit + 1L).toList();
+        return FeedEngine.merge(timelines, fetched, after, limit);
+    }
+
+    @Test
+    void pagesThroughTheSortedAndFilteredPosts() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<Post> posts = posts(seed);
+            List<Post> expected = oracle(posts, FOLLOWED, null);
+            for (int limit : new int[] {1, 3, 20, expected.size(), expected.size() + 1}) {
+                List<Post> feed = new ArrayList<>();
+                FeedEngine.Cursor after = null;
+                do {
+                    FeedEngine.Page page = page(posts, after, limit);
+                    assertEquals(oracle(posts, FOLLOWED, after).stream().limit(limit).toList(), page.posts());
+                    feed.addAll(page.posts());
+                    after = page.next();
+                } while (after != null);
+                assertEquals(expected, feed, "seed " + seed + ", limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void hasMoreOnlyWhenAPostFollowsThePage() {
+        List<Post> resident = List.of(post(1, 1, 10), post(2, 1, 20));
+        List<Post> fetched = List.of(post(4, 5, 40), post(3, 5, 30));
+
+        // Exactly limit posts: the last page
+        FeedEngine.Page page = FeedEngine.merge(List.of(resident), fetched, null, 4);
+        assertEquals(List.of(4, 3, 2, 1), page.posts().stream().map(Post::getId).toList());
+        assertFalse(page.hasMore());
+        assertNull(page.next());
+
+        // One post left in memory
+        page = FeedEngine.merge(List.of(resident), fetched, null, 3);
+        assertTrue(page.hasMore());
+        assertEquals(FeedEngine.Cursor.after(post(2, 1, 20)), page.next());
+
+        // The extra database row is the only post left
+        page = FeedEngine.merge(List.of(), fetched, null, 1);
+        assertEquals(List.of(4), page.posts().stream().map(Post::getId).toList());
+        assertTrue(page.hasMore());
+
+        page = FeedEngine.merge(List.of(List.of()), List.of(), null, 5);
+        assertTrue(page.posts().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void breaksTiesOnTheDateWithThePostId() {
+        List<Post> first = List.of(post(2, 1, 100), post(5, 1, 100));
+        List<Post> second = List.of(post(1, 2, 100), post(4, 2, 100), post(6, 2, 100));
+        List<Post> fetched = List.of(post(3, 5, 100));
+
+        List<Integer> ids = new ArrayList<>();
+        FeedEngine.Cursor after = null;
+        do {
+            FeedEngine.Page page = FeedEngine.merge(List.of(first, second), oracle(fetched, Set.of(5), after), after, 2);
+            page.posts().forEach(post -> ids.add(post.getId()));
+            after = page.next();
+        } while (after != null);
+        assertEquals(List.of(6, 5, 4, 3, 2, 1), ids);
+    }
+
+    @Test
+    void lastIndexBeforeFindsTheNewestPostAfterTheCursor() {
+        List<Post> timeline = List.of(post(1, 1, 10), post(3, 1, 20), post(4, 1, 20), post(7, 1, 20), post(2, 1, 30));
+
+        assertEquals(-1, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(10_000L), 1)));
+        assertEquals(0, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(10_000L), 2)));
+        assertEquals(0, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(20_000L), 3)));
+        assertEquals(1, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(20_000L), 4)));
+        assertEquals(2, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(20_000L), 7)));
+        assertEquals(3, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(25_000L), 0)));
+        assertEquals(4, FeedEngine.lastIndexBefore(timeline, new FeedEngine.Cursor(new Date(30_000L), 3)));
+        assertEquals(-1, FeedEngine.lastIndexBefore(List.of(), new FeedEngine.Cursor(new Date(30_000L), 3)));
+    }
+}
@@ -0,0 +1,169 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntSetTest {
+    // A sorted set never allocates more than SORTED_MAX slots, a hashed one always does
+    private static boolean isHashed(IntSet set) {
+        return set.capacity() > IntSet.SORTED_MAX;
+    }
+
+    private static IntSet range(int from, int to) {
+        IntSet set = new IntSet();
+        for (int id = from; id < to; id++) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Test
+    void hashesOnceItHoldsMoreThanSortedMax() {
+        IntSet set = range(0, IntSet.SORTED_MAX);
+        assertFalse(isHashed(set));
+
+        assertTrue(set.add(IntSet.SORTED_MAX));
+        assertTrue(isHashed(set));
+        assertEquals(IntSet.SORTED_MAX + 1, set.size());
+        for (int id = 0; id <= IntSet.SORTED_MAX; id++) {
+            assertTrue(set.contains(id));
+        }
+        assertFalse(set.add(0));
+    }
+
+    @Test
+    void movesBackToSortedAtHalfSortedMax() {
+        IntSet set = range(0, IntSet.SORTED_MAX + 1);
+        int id = 0;
+        while (set.size() > IntSet.SORTED_MAX / 2 + 1) {
+            assertTrue(set.remove(id++));
+        }
+        assertTrue(isHashed(set));
+
+        assertTrue(set.remove(id++));
+        assertFalse(isHashed(set));
+        assertEquals(IntSet.SORTED_MAX / 2, set.size());
+        assertArrayEquals(range(id, IntSet.SORTED_MAX + 1).toArray(), set.toArray());
+
+        // Grows again within the sorted array, then hashes again
+        for (int i = 0; i < id; i++) {
+            set.add(i);
+        }
+        assertTrue(isHashed(set));
+        assertArrayEquals(range(0, IntSet.SORTED_MAX + 1).toArray(), set.toArray());
+    }
+
+    @Test
+    void holdsTheFreeSentinelInBothRepresentations() {
+        IntSet set = IntSet.of(Integer.MIN_VALUE, 1, 2);
+        assertTrue(set.contains(Integer.MIN_VALUE));
+
+        for (int id = 3; id <= IntSet.SORTED_MAX + 5; id++) {
+            set.add(id);
+        }
+        assertTrue(isHashed(set));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertFalse(set.add(Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE, set.toArray()[0]);
+        int[] visits = {0};
+        set.forEach(id -> {
+            if (id == Integer.MIN_VALUE) {
+                visits[0]++;
+            }
+        });
+        assertEquals(1, visits[0]);
+
+        int size = set.size();
+        assertTrue(set.remove(Integer.MIN_VALUE));
+        assertFalse(set.contains(Integer.MIN_VALUE));
+        assertFalse(set.remove(Integer.MIN_VALUE));
+        assertEquals(size - 1, set.size());
+
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertEquals(size, set.size());
+    }
+
+    @Test
+    void keepsProbeClustersReachableAcrossRemovalsAndWrapAround() {
+        IntSet set = range(0, IntSet.SORTED_MAX + 1);
+        assertTrue(isHashed(set));
+        int mask = set.capacity() - 1;
+
+        // IDs whose home is the last slot, so that their cluster wraps around to the start of the table
+        List<Integer> colliding = new ArrayList<>();
+        for (int id = 1_000; colliding.size() < 6; id++) {
+            if ((IntSet.mix(id) & mask) == mask) {
+                colliding.add(id);
+            }
+        }
+        colliding.forEach(set::add);
+        assertEquals(mask + 1, set.capacity());
+
+        TreeSet<Integer> expected = new TreeSet<>();
+        set.forEach(expected::add);
+        for (int id : List.of(colliding.get(0), colliding.get(3), colliding.get(5), colliding.get(1))) {
+            assertTrue(set.remove(id));
+            expected.remove(id);
+            for (int other : expected) {
+                assertTrue(set.contains(other), () -> "lost " + other + " after removing " + id);
+            }
+            assertFalse(set.contains(id));
+        }
+        assertEquals(expected.size(), set.size());
+    }
+
+    @Test
+    void equalsAndHashCodeIgnoreTheRepresentation() {
+        IntSet sorted = IntSet.of(Integer.MIN_VALUE);
+        IntSet hashed = IntSet.of(Integer.MIN_VALUE);
+        for (int id = 0; id < IntSet.SORTED_MAX + 1; id++) {
+            hashed.add(id * 7);
+            if (id < 20) {
+                sorted.add(id * 7);
+            }
+        }
+        for (int id = 20; id < IntSet.SORTED_MAX + 1; id++) {
+            hashed.remove(id * 7);
+        }
+        assertTrue(isHashed(hashed));
+        assertFalse(isHashed(sorted));
+
+        assertEquals(sorted, hashed);
+        assertEquals(hashed, sorted);
+        assertEquals(sorted.hashCode(), hashed.hashCode());
+        assertEquals(sorted.toString(), hashed.toString());
+
+        hashed.remove(7);
+        hashed.add(8);
+        assertFalse(sorted.equals(hashed));
+    }
+
+    @Test
+    void matchesATreeSetUnderRandomOperations() {
+        Random random = new Random(42);
+        IntSet set = new IntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 20_000; step++) {
+            // A small range, so the set keeps crossing both thresholds
+            int id = random.nextInt(10) == 0 ? Integer.MIN_VALUE : random.nextInt(80) - 20;
+            boolean remove = expected.size() > IntSet.SORTED_MAX ? random.nextInt(3) != 0 : random.nextInt(3) == 0;
+            if (remove) {
+                assertEquals(expected.remove(id), set.remove(id));
+            } else {
+                assertEquals(expected.add(id), set.add(id));
+            }
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.contains(id), set.contains(id));
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+    }
+}
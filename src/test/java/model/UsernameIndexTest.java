@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UsernameIndexTest {
+
+    private static UsernameIndex index(String... usernames) {
+        UsernameIndex index = new UsernameIndex();
+        for (int i = 0; i < usernames.length; i++) {
+            index.add(i + 1, usernames[i]);
+        }
+        return index;
+    }
+
+    @Test
+    void listsPrefixMatchesBeforeSubstringMatches() {
+        UsernameIndex index = index("malice", "alice", "zalicea", "alicia", "bob", "alibaba");
+
+        // Prefix matches alphabetically, then the other matches alphabetically
+        assertEquals(List.of(2, 4, 1, 3), index.search("alic", 10));
+        assertEquals(List.of(6, 2, 4, 1, 3), index.search("ali", 10));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        UsernameIndex index = index("anna", "annabel", "joanna", "hannah", "anne");
+
+        assertEquals(List.of(1, 2), index.search("ann", 2));
+        assertEquals(List.of(1, 2, 5, 4), index.search("ann", 4));
+        assertEquals(List.of(1, 2, 5, 4, 3), index.search("ann", 5));
+        assertEquals(List.of(), index.search("ann", 0));
+    }
+
+    @Test
+    void ignoresCase() {
+        UsernameIndex index = index("AliceW", "BOBBY");
+
+        assertEquals(List.of(1), index.search("alice", 10));
+        assertEquals(List.of(1), index.search("ICE", 10));
+        assertEquals(List.of(2), index.search(" bO ", 10));
+    }
+
+    @Test
+    void followsRenamesAndRemovals() {
+        UsernameIndex index = index("carol", "dave");
+
+        index.add(1, "caroline");
+        assertEquals(List.of(1), index.search("line", 10));
+        assertEquals(List.of(1), index.search("carol", 10));
+
+        index.add(1, "erin");
+        assertEquals(List.of(), index.search("carol", 10));
+        assertEquals(List.of(), index.search("line", 10));
+        assertEquals(List.of(1), index.search("rin", 10));
+
+        index.remove(2);
+        assertEquals(List.of(), index.search("dav", 10));
+        assertEquals(List.of(), index.search("d", 10));
+        index.remove(2);
+
+        index.clear();
+        assertEquals(List.of(), index.search("e", 10));
+    }
+
+    @Test
+    void matchesShortQueriesAtTheStartOnly() {
+        UsernameIndex index = index("bea", "abe", "zoe", "ben");
+
+        assertEquals(List.of(1, 4), index.search("be", 10));
+        assertEquals(List.of(2), index.search("a", 10));
+        assertEquals(List.of(), index.search("oe", 10));
+        assertEquals(List.of(2, 1, 4, 3), index.search("", 10));
+    }
+
+    @Test
+    void listsTheFirstUsernamesAlphabetically() {
+        UsernameIndex index = index("Zoe", "bea", "abe", "Ben");
+
+        assertEquals(List.of(3, 2, 4), index.head(3));
+        assertEquals(List.of(3, 2, 4, 1), index.head(10));
+        assertEquals(List.of(), index.head(0));
+    }
+}